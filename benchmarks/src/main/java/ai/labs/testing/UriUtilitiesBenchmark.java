@@ -0,0 +1,52 @@
+package ai.labs.testing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parsing of the location header, done for every created resource and conversation.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UriUtilitiesBenchmark {
+    private final String resourceLocationHeader =
+            "eddi://ai.labs.regulardictionary/regulardictionarystore/regulardictionaries/5af59e769bcb0f31b4b3b934?version=12";
+    private final String conversationLocationHeader =
+            "eddi://ai.labs.conversation/conversationstore/conversations/5c8a1e4b9bcb0f2f0c7a3d21";
+    private final URI resourceLocation = URI.create(resourceLocationHeader);
+    private final URI conversationLocation = URI.create(conversationLocationHeader);
+
+    @Benchmark
+    public ResourceId extractVersionedResourceId() {
+        return UriUtilities.extractResourceId(resourceLocation);
+    }
+
+    @Benchmark
+    public ResourceId extractConversationId() {
+        return UriUtilities.extractResourceId(conversationLocation);
+    }
+
+    @Benchmark
+    public ResourceId extractVersionedResourceIdFromHeader() {
+        return UriUtilities.extractResourceId(resourceLocationHeader);
+    }
+
+    @Benchmark
+    public ResourceId extractConversationIdFromHeader() {
+        return UriUtilities.extractResourceId(conversationLocationHeader);
+    }
+}
@@ -0,0 +1,98 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.model.BotConfiguration;
+import ai.labs.testing.model.InputData;
+import ai.labs.testing.model.PackageConfiguration;
+import ai.labs.testing.transport.BufferPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the resources created by {@link BotEngineSetup} and of the user input with context,
+ * sent on every conversation turn. Lives in the harness' package to reach {@link JsonSerialization}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JsonSerializationBenchmark {
+    private static final String LOCATION = "eddi://ai.labs.%s/%sstore/%s/5af59e769bcb0f31b4b3b934?version=1";
+
+    private JsonSerialization jsonSerialization;
+    private PackageConfiguration packageConfiguration;
+    private BotConfiguration botConfiguration;
+
+    @State(Scope.Benchmark)
+    public static class UserInput {
+        /**
+         * number of entries of the userInfo context object
+         */
+        @Param({"0", "10", "100"})
+        private int contextEntries;
+
+        private InputData inputData;
+
+        @Setup
+        public void setup() {
+            Map<String, Object> userInfo = new HashMap<>();
+            for (int i = 0; i < contextEntries; i++) {
+                userInfo.put("attribute" + i, "value of attribute " + i);
+            }
+            inputData = new InputData("what is the weather in Vienna", new HashMap<>());
+            inputData.getContext().put("userInfo", new InputData.Context(InputData.Context.ContextType.object, userInfo));
+            inputData.getContext().put("channel", new InputData.Context(InputData.Context.ContextType.string, "web"));
+        }
+    }
+
+    @Setup
+    public void setup() {
+        jsonSerialization = JsonSerialization.getInstance();
+
+        BotEngineSetup botEngineSetup = new BotEngineSetup(false);
+        packageConfiguration = botEngineSetup.createPackageConfiguration(
+                String.format(LOCATION, "regulardictionary", "regulardictionary", "regulardictionaries"),
+                String.format(LOCATION, "behavior", "behavior", "behaviorsets"),
+                String.format(LOCATION, "output", "output", "outputsets"));
+        botConfiguration = botEngineSetup.createBotConfiguration(
+                String.format(LOCATION, "package", "package", "packages"));
+    }
+
+    @Benchmark
+    public String packageConfigurationToJson() throws IOException {
+        return jsonSerialization.toJson(packageConfiguration);
+    }
+
+    @Benchmark
+    public String botConfigurationToJson() throws IOException {
+        return jsonSerialization.toJson(botConfiguration);
+    }
+
+    @Benchmark
+    public String inputDataToJson(UserInput userInput) throws IOException {
+        return jsonSerialization.toJson(userInput.inputData);
+    }
+
+    @Benchmark
+    public int inputDataToJsonBuffer(UserInput userInput) throws IOException {
+        BufferPool.PooledBuffer buffer = jsonSerialization.toJsonBuffer(userInput.inputData);
+        int size = buffer.size();
+        buffer.release();
+        return size;
+    }
+}
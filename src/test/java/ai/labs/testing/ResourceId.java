@@ -1,13 +1,17 @@
 package ai.labs.testing;
 
+import java.util.Objects;
+
 /**
+ * Immutable, so that {@link UriUtilities} can hand out the same instance for the same location.
+ *
  * @author ginccc
  */
-public class ResourceId {
-    private String id;
-    private Integer version;
+public final class ResourceId {
+    private final String id;
+    private final Integer version;
 
-    ResourceId(String id, Integer version) {
+    public ResourceId(String id, Integer version) {
         this.id = id;
         this.version = version;
     }
@@ -16,15 +20,29 @@ public class ResourceId {
         return id;
     }
 
-    public void setId(String id) {
-        this.id = id;
-    }
-
     public Integer getVersion() {
         return version;
     }
 
-    public void setVersion(Integer version) {
-        this.version = version;
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ResourceId)) {
+            return false;
+        }
+        ResourceId that = (ResourceId) o;
+        return id.equals(that.id) && Objects.equals(version, that.version);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * id.hashCode() + Objects.hashCode(version);
+    }
+
+    @Override
+    public String toString() {
+        return id + "?version=" + version;
     }
 }
@@ -6,22 +6,83 @@ import java.net.URI;
  * @author ginccc
  */
 public class UriUtilities {
+    private static final String VERSION_PARAMETER = "version=";
+    private static final int NO_VERSION = -1;
+
+    /**
+     * Direct-mapped cache of the last ResourceId seen per slot. Hits (the same conversation or resource
+     * coming back) allocate nothing, a miss replaces the slot, so the cache never holds more than
+     * {@value #CACHE_SIZE} entries. Slots are read and written without locking: a racing write only
+     * costs another miss.
+     */
+    private static final int CACHE_SIZE = 4096;
+    private static final ResourceId[] cache = new ResourceId[CACHE_SIZE];
+
     public static ResourceId extractResourceId(URI uri) {
-        String uriString = uri.toString();
-        if (uriString.endsWith("/")) {
-            uriString = uriString.substring(0, uriString.length() - 1);
+        // URI keeps the string it was created from, toString() doesn't build a new one
+        return extractResourceId(uri.toString());
+    }
+
+    /**
+     * Reads id and version of e.g. eddi://ai.labs.bot/botstore/bots/{id}?version=1 in a single pass,
+     * without intermediate strings or arrays.
+     *
+     * @param location a location header, the version is -1 if it has none
+     */
+    public static ResourceId extractResourceId(String location) {
+        int queryStart = location.indexOf('?');
+        int idEnd = queryStart < 0 ? location.length() : queryStart;
+        if (idEnd > 0 && location.charAt(idEnd - 1) == '/') {
+            idEnd--;
         }
+        int idStart = location.lastIndexOf('/', idEnd - 1) + 1;
+        int version = queryStart < 0 ? NO_VERSION : parseVersion(location, queryStart + 1);
 
-        String[] split = uriString.split("/");
-        String id = split[split.length - 1].split("\\?")[0];
+        int hash = version;
+        for (int i = idStart; i < idEnd; i++) {
+            hash = 31 * hash + location.charAt(i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & (CACHE_SIZE - 1);
 
-        String[] queryParamVersion = uriString.split("\\?");
-        Integer version = -1;
-        if (queryParamVersion.length > 1) {
-            version = Integer.parseInt(queryParamVersion[1].split("=")[1]);
+        ResourceId cached = cache[slot];
+        int idLength = idEnd - idStart;
+        if (cached != null && cached.getVersion() == version && cached.getId().length() == idLength &&
+                location.regionMatches(idStart, cached.getId(), 0, idLength)) {
+            return cached;
         }
 
-        return new ResourceId(id, version);
+        ResourceId resourceId = new ResourceId(location.substring(idStart, idEnd), version);
+        cache[slot] = resourceId;
+        return resourceId;
     }
 
+    private static int parseVersion(String location, int queryStart) {
+        int parameterStart = queryStart;
+        while (parameterStart < location.length()) {
+            int parameterEnd = location.indexOf('&', parameterStart);
+            if (parameterEnd < 0) {
+                parameterEnd = location.length();
+            }
+
+            if (location.startsWith(VERSION_PARAMETER, parameterStart)) {
+                int version = 0;
+                int digits = 0;
+                for (int i = parameterStart + VERSION_PARAMETER.length(); i < parameterEnd; i++, digits++) {
+                    char c = location.charAt(i);
+                    if (c < '0' || c > '9') {
+                        throw new NumberFormatException("Invalid version in " + location);
+                    }
+                    version = version * 10 + (c - '0');
+                }
+                if (digits == 0) {
+                    throw new NumberFormatException("Invalid version in " + location);
+                }
+                return version;
+            }
+
+            parameterStart = parameterEnd + 1;
+        }
+
+        return NO_VERSION;
+    }
 }
@@ -2,32 +2,55 @@ package ai.labs.testing.integration;
 
 import ai.labs.testing.ResourceId;
 import ai.labs.testing.UriUtilities;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.LoadReport;
+import ai.labs.testing.model.InputData;
+import ai.labs.testing.standin.EddiStandInServer;
+import ai.labs.testing.transport.TrafficStatistics;
+import ai.labs.testing.transport.Transport;
+import ai.labs.testing.transport.TransportRequest;
+import ai.labs.testing.transport.Transports;
 import io.restassured.RestAssured;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import io.restassured.response.ValidatableResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.AfterSuite;
 
 import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.net.URI;
 import java.net.URL;
 import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
 
-import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
 
 /**
  * @author ginccc
  */
+@Slf4j
 class BaseCRUDOperations {
     private static final String HEADER_LOCATION = "location";
-    private static final String DEPLOY_PATH = "administration/unrestricted/deploy/%s?version=%s&autoDeploy=false";
-    private static final String DEPLOYMENT_STATUS_PATH = "administration/unrestricted/deploymentstatus/%s?version=%s";
     private static final ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+    private static final String JSON = ContentType.JSON.toString();
     static final String VERSION_STRING = "?version=";
-    ResourceId resourceId;
+    private static final String NAMESPACE = System.getProperty("eddi.namespace",
+            RandomStringUtils.randomAlphanumeric(8));
+    private static final AtomicLong namespaceCounter = new AtomicLong();
+    static Transport transport;
+    static BotDeploymentOrchestrator deploymentOrchestrator;
+    private static EddiStandInServer standInServer;
+    private TrafficStatistics trafficAtSetup;
 
     static File getFile(String filePath) throws FileNotFoundException {
         File file;
@@ -49,20 +72,82 @@ class BaseCRUDOperations {
     }
 
     public void setup() throws IOException, InterruptedException {
+        configure();
+        if (trafficAtSetup == null) {
+            trafficAtSetup = transport.getTrafficStatistics().snapshot();
+        }
+    }
+
+    /**
+     * Logs the bytes sent and received since the setup of the test class per kind of request, e.g. per turn
+     * and returnDetailed/returnCurrentStepOnly combination. The counts of the transport are shared, so with
+     * -Pparallel they include the requests of the test classes running at the same time.
+     */
+    @AfterClass(alwaysRun = true)
+    public void logTraffic() {
+        if (transport == null || trafficAtSetup == null) {
+            return;
+        }
+
+        TrafficStatistics traffic = transport.getTrafficStatistics().since(trafficAtSetup);
+        if (!traffic.isEmpty()) {
+            log.info(String.format("traffic of %s (body bytes per request)%n%s",
+                    getClass().getSimpleName(), traffic.format()));
+        }
+    }
+
+    /**
+     * Logs the time-to-READY of the deployments of the suite and stops the poll threads of their orchestrator.
+     */
+    @AfterSuite(alwaysRun = true)
+    public void logDeployments() {
+        if (deploymentOrchestrator == null) {
+            return;
+        }
+
+        LoadMetrics metrics = deploymentOrchestrator.getMetrics();
+        if (!metrics.getEndpoints().isEmpty()) {
+            metrics.stop();
+            log.info(new LoadReport("deployments of the suite", metrics).format());
+        }
+        deploymentOrchestrator.close();
+        deploymentOrchestrator = null;
+    }
+
+    private static synchronized void configure() throws IOException {
         final Properties props = System.getProperties();
 
-        RestAssured.baseURI = props.containsKey("eddi.baseURI") ? props.getProperty("eddi.baseURI") : "http://localhost";
-        RestAssured.port = props.containsKey("eddi.port") ? Integer.parseInt(props.getProperty("eddi.port")) : 7070;
+        if (Boolean.parseBoolean(props.getProperty("eddi.standin"))) {
+            if (standInServer == null) {
+                standInServer = EddiStandInServer.fromSystemProperties().start();
+            }
+            RestAssured.baseURI = standInServer.getBaseUri();
+            RestAssured.port = standInServer.getPort();
+        } else {
+            RestAssured.baseURI = props.containsKey("eddi.baseURI") ? props.getProperty("eddi.baseURI") : "http://localhost";
+            RestAssured.port = props.containsKey("eddi.port") ? Integer.parseInt(props.getProperty("eddi.port")) : 7070;
+        }
+        transport = Transports.fromSystemProperties(RestAssured.baseURI, RestAssured.port);
+        if (deploymentOrchestrator == null) {
+            deploymentOrchestrator = new BotDeploymentOrchestrator(transport, new LoadMetrics());
+        }
+    }
+
+    /**
+     * Makes a name (userId, intent, ...) unique to this run, test class and call, so that test classes
+     * running in parallel, or several runs against the same EDDI, don't share state through it.
+     * The run part can be fixed with -Deddi.namespace.
+     */
+    String namespaced(String name) {
+        return String.format("%s-%s-%s-%d", name, NAMESPACE, getClass().getSimpleName(),
+                namespaceCounter.incrementAndGet());
     }
 
     Response create(String body, String path) {
-        return given().
-                body(body).
-                contentType(ContentType.JSON).
-                post(path);
+        return transport.send(TransportRequest.post(path, JSON, body));
     }
 
-    void assertCreate(String body, String path, String resourceUri) {
+    ResourceId assertCreate(String body, String path, String resourceUri) {
         //test
         Response response = create(body, path);
 
@@ -74,14 +159,14 @@ class BaseCRUDOperations {
                 header("location", endsWith(VERSION_STRING + "1"));
 
         String location = response.getHeader("location");
-        resourceId = UriUtilities.extractResourceId(URI.create(location));
+        return UriUtilities.extractResourceId(location);
     }
 
     private Response read(String path) {
-        return given().get(path);
+        return transport.send(TransportRequest.get(path));
     }
 
-    ValidatableResponse assertRead(String path) {
+    ValidatableResponse assertRead(String path, ResourceId resourceId) {
         //test
         Response response = read(path + resourceId.getId() + VERSION_STRING + resourceId.getVersion());
 
@@ -91,85 +176,99 @@ class BaseCRUDOperations {
                 statusCode(equalTo(200));
     }
 
-    private Response update(String body, String path) {
-        return given().
-                body(body).
-                contentType(ContentType.JSON).
-                put(path + resourceId.getId() + VERSION_STRING + resourceId.getVersion());
+    private Response update(String body, String path, ResourceId resourceId) {
+        return transport.send(TransportRequest.put(
+                path + resourceId.getId() + VERSION_STRING + resourceId.getVersion(), JSON, body));
     }
 
-    ValidatableResponse assertUpdate(String body, String path, String resourceUri) {
+    /**
+     * @return the id of the new version
+     */
+    ResourceId assertUpdate(String body, String path, String resourceUri, ResourceId resourceId) {
         //test
-        Response response = update(body, path);
+        Response response = update(body, path, resourceId);
 
         //assert
         response.then().
                 assertThat().
                 statusCode(equalTo(200)).
                 header("location", startsWith(resourceUri)).
-                header("location", endsWith(VERSION_STRING + "2"));
+                header("location", endsWith(VERSION_STRING + (resourceId.getVersion() + 1)));
 
         String location = response.getHeader("location");
-        resourceId = UriUtilities.extractResourceId(URI.create(location));
-
-        response = read(path + resourceId.getId() + VERSION_STRING + resourceId.getVersion());
-
-        return response.then().
-                assertThat().
-                statusCode(equalTo(200));
+        return UriUtilities.extractResourceId(location);
     }
 
-    private Response patch(String body, String path) {
-        return given().
-                body(body).
-                contentType(ContentType.JSON).
-                patch(path + resourceId.getId() + VERSION_STRING + resourceId.getVersion());
+    private Response patch(String body, String path, ResourceId resourceId) {
+        return transport.send(TransportRequest.patch(
+                path + resourceId.getId() + VERSION_STRING + resourceId.getVersion(), JSON, body));
     }
 
-    ValidatableResponse assertPatch(String body, String path, String resourceUri) {
+    /**
+     * @return the id of the new version
+     */
+    ResourceId assertPatch(String body, String path, String resourceUri, ResourceId resourceId) {
         //test
-        Response response = patch(body, path);
+        Response response = patch(body, path, resourceId);
 
         //assert
         response.then().
                 assertThat().
                 statusCode(equalTo(200)).
                 header("location", startsWith(resourceUri)).
-                header("location", endsWith(VERSION_STRING + "3"));
+                header("location", endsWith(VERSION_STRING + (resourceId.getVersion() + 1)));
 
         String location = response.getHeader("location");
-        resourceId = UriUtilities.extractResourceId(URI.create(location));
-
-        response = read(path + resourceId.getId() + VERSION_STRING + resourceId.getVersion());
-
-        return response.then().
-                assertThat().
-                statusCode(equalTo(200));
+        return UriUtilities.extractResourceId(location);
     }
 
 
-    void assertDelete(String path) {
+    void assertDelete(String path, ResourceId resourceId) {
         //test
         String requestUri = path + resourceId.getId() + VERSION_STRING + resourceId.getVersion();
-        given().delete(requestUri);
+        transport.send(TransportRequest.delete(requestUri));
         read(requestUri).then().statusCode(404);
     }
 
     void deployBot(String id, Integer version) throws InterruptedException {
-        given().post(String.format(DEPLOY_PATH, id, version));
-
-        while (true) {
-            Response response = given().accept(ContentType.TEXT).
-                    get(String.format(DEPLOYMENT_STATUS_PATH, id, version));
-            RestBotEngineTest.Status status = RestBotEngineTest.Status.valueOf(response.getBody().print());
-            if (status.equals(RestBotEngineTest.Status.IN_PROGRESS)) {
-                Thread.sleep(500);
-            } else if (status.equals(RestBotEngineTest.Status.ERROR)) {
-                throw new RuntimeException(String.format("Couldn't deploy Bot (id=%s,version=%s)", id, version));
-            } else if (status.equals(RestBotEngineTest.Status.READY)) {
-                break;
+        deploymentOrchestrator.deployAll(Collections.singletonList(new ResourceId(id, version)));
+    }
+
+    void deployBots(List<ResourceId> bots) throws InterruptedException {
+        deploymentOrchestrator.deployAll(bots);
+    }
+
+    ResourceId createBot(String regularDictionaryPath, String behaviorPath, String outputPath)
+            throws IOException, InterruptedException {
+        URI botLocationUri = new BotEngineSetup().setupBot(regularDictionaryPath, behaviorPath, outputPath);
+        return UriUtilities.extractResourceId(botLocationUri);
+    }
+
+    ResourceId deployBot(String regularDictionaryPath, String behaviorPath, String outputPath)
+            throws IOException, InterruptedException {
+        ResourceId resourceId = createBot(regularDictionaryPath, behaviorPath, outputPath);
+        deployBot(resourceId.getId(), resourceId.getVersion());
+        log.info(String.format("bot (id=%s , version=%s) has been deployed",
+                resourceId.getId(),
+                resourceId.getVersion()));
+
+        return resourceId;
+    }
+
+    ResourceId importBot(String filename) throws FileNotFoundException, InterruptedException {
+        Path zipFile = getFile("tests/useCases/" + filename + ".zip").toPath();
+        Response response = transport.send(TransportRequest.post("backup/import", "application/zip", () -> {
+            try {
+                return Files.newInputStream(zipFile);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-        }
+        }));
+
+        String location = response.getHeader(HEADER_LOCATION);
+        ResourceId resourceId = UriUtilities.extractResourceId(location);
+        deployBot(resourceId.getId(), resourceId.getVersion());
+        return resourceId;
     }
 
     Response sendUserInput(ResourceId resourceId,
@@ -177,16 +276,79 @@ class BaseCRUDOperations {
                            String userInput,
                            boolean returnDetailed,
                            boolean returnCurrentStepOnly) {
-        return given().
-                contentType(ContentType.TEXT).
-                body(userInput).
-                post(String.format("bots/unrestricted/%s/%s?returnDetailed=%s&returnCurrentStepOnly=%s",
-                        resourceId.getId(), conversationResourceId.getId(), returnDetailed, returnCurrentStepOnly));
+        return transport.send(createUserInputRequest(resourceId, conversationResourceId, userInput,
+                returnDetailed, returnCurrentStepOnly));
+    }
+
+    CompletableFuture<Response> sendUserInputAsync(ResourceId resourceId,
+                                                   ResourceId conversationResourceId,
+                                                   String userInput,
+                                                   boolean returnDetailed,
+                                                   boolean returnCurrentStepOnly) {
+        return transport.sendAsync(createUserInputRequest(resourceId, conversationResourceId, userInput,
+                returnDetailed, returnCurrentStepOnly));
+    }
+
+    private static TransportRequest createUserInputRequest(ResourceId resourceId,
+                                                           ResourceId conversationResourceId,
+                                                           String userInput,
+                                                           boolean returnDetailed,
+                                                           boolean returnCurrentStepOnly) {
+        return TransportRequest.post(String.format("bots/unrestricted/%s/%s?returnDetailed=%s&returnCurrentStepOnly=%s",
+                resourceId.getId(), conversationResourceId.getId(), returnDetailed, returnCurrentStepOnly),
+                ContentType.TEXT.toString(), userInput);
+    }
+
+    /**
+     * Sends input and context as InputData JSON, serialized into a pooled buffer.
+     */
+    Response sendUserInput(ResourceId resourceId,
+                           ResourceId conversationResourceId,
+                           InputData inputData,
+                           boolean returnDetailed,
+                           boolean returnCurrentStepOnly) throws IOException {
+        return transport.send(createUserInputRequest(resourceId, conversationResourceId, inputData,
+                returnDetailed, returnCurrentStepOnly));
+    }
+
+    CompletableFuture<Response> sendUserInputAsync(ResourceId resourceId,
+                                                   ResourceId conversationResourceId,
+                                                   InputData inputData,
+                                                   boolean returnDetailed,
+                                                   boolean returnCurrentStepOnly) {
+        try {
+            return transport.sendAsync(createUserInputRequest(resourceId, conversationResourceId, inputData,
+                    returnDetailed, returnCurrentStepOnly));
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static TransportRequest createUserInputRequest(ResourceId resourceId,
+                                                           ResourceId conversationResourceId,
+                                                           InputData inputData,
+                                                           boolean returnDetailed,
+                                                           boolean returnCurrentStepOnly) throws IOException {
+        return TransportRequest.post(String.format("bots/unrestricted/%s/%s?returnDetailed=%s&returnCurrentStepOnly=%s",
+                resourceId.getId(), conversationResourceId.getId(), returnDetailed, returnCurrentStepOnly),
+                JSON, JsonSerialization.getInstance().toJsonBuffer(inputData));
     }
 
     ResourceId createConversation(String botId, String userId) {
-        Response response = given().post("bots/unrestricted/" + botId + "?userId=" + userId);
+        return toConversationId(transport.send(createConversationRequest(botId, userId)));
+    }
+
+    CompletableFuture<ResourceId> createConversationAsync(String botId, String userId) {
+        return transport.sendAsync(createConversationRequest(botId, userId)).
+                thenApply(BaseCRUDOperations::toConversationId);
+    }
+
+    private static TransportRequest createConversationRequest(String botId, String userId) {
+        return TransportRequest.post("bots/unrestricted/" + botId + "?userId=" + userId);
+    }
+
+    private static ResourceId toConversationId(Response response) {
         String locationConversation = response.getHeader(HEADER_LOCATION);
-        return UriUtilities.extractResourceId(URI.create(locationConversation));
+        return UriUtilities.extractResourceId(locationConversation);
     }
 }
@@ -0,0 +1,63 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.UriUtilities;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Sets up the bot of RestBotEngineTest with generated behavior rules added to its behavior set
+ * ({@link BehaviorSetGenerator}): every count of -Deddi.load.behaviorRules, spread over -Deddi.load.behaviorGroups
+ * groups, at every condition depth of -Deddi.load.behaviorDepths, with plain and with negated conditions.
+ * Plays the scripts of tests/load/botengine.json against the bot without generated rules first, then against
+ * one variant after the other, and logs the per-turn latency of each next to its difference to the first.
+ */
+@Test(groups = "load")
+public class BehaviorLoadTest extends BotVariantLoadTest {
+    private static final String WITHOUT_GENERATED_RULES = "0 rules";
+
+    private final Map<String, ResourceId> bots = new LinkedHashMap<>();
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+
+        final Properties props = System.getProperties();
+        int behaviorGroups = Integer.parseInt(props.getProperty("eddi.load.behaviorGroups", "10"));
+        List<Integer> ruleCounts = parseIntegers(props.getProperty("eddi.load.behaviorRules", "10,100,500"));
+        List<Integer> depths = parseIntegers(props.getProperty("eddi.load.behaviorDepths", "1,3"));
+
+        loadScripts("load/botengine.json");
+        String regularDictionary = load("botengine/regularDictionary.json");
+        String behavior = load("botengine/behavior.json");
+        String output = load("botengine/output.json");
+
+        bots.put(WITHOUT_GENERATED_RULES, setupBot(regularDictionary, behavior, output));
+        for (int ruleCount : ruleCounts) {
+            int groups = Math.min(behaviorGroups, ruleCount);
+            for (int depth : depths) {
+                for (boolean negated : new boolean[]{false, true}) {
+                    BehaviorSetGenerator generator = new BehaviorSetGenerator(groups, ruleCount, depth, negated);
+                    bots.put(generator.getName(), setupBot(regularDictionary, generator.generate(behavior), output));
+                }
+            }
+        }
+        deployBots(new ArrayList<>(bots.values()));
+    }
+
+    public void ruleScaling() throws Exception {
+        compareVariants("per-turn latency by generated behavior rules", "behavior-rules", bots);
+    }
+
+    private ResourceId setupBot(String regularDictionary, String behavior, String output)
+            throws IOException, InterruptedException {
+        return UriUtilities.extractResourceId(new BotEngineSetup().setupBotFromJson(regularDictionary, behavior, output));
+    }
+}
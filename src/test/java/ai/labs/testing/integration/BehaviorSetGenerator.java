@@ -0,0 +1,99 @@
+package ai.labs.testing.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.Locale;
+
+/**
+ * Adds generated behavior groups in front of the groups of a behavior set such as tests/botengine/behavior.json.
+ * Every generated rule is evaluated on every turn but never succeeds, so the bot still behaves as before and
+ * each turn pays for all of them. A rule's condition is a tree conditionDepth levels deep: every level is an
+ * OR connector of a leaf and the next level, the innermost level is a leaf alone. A leaf is an inputmatcher on
+ * an expression no input has or, if negated, the negation of an occurrence condition that always holds.
+ */
+class BehaviorSetGenerator {
+    private static final String UNLIMITED_OCCURRENCES = String.valueOf(Integer.MAX_VALUE);
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int groups;
+    private final int rules;
+    private final int conditionDepth;
+    private final boolean negated;
+
+    /**
+     * @param rules spread over the groups, the first rules % groups groups get one rule more than the others
+     */
+    BehaviorSetGenerator(int groups, int rules, int conditionDepth, boolean negated) {
+        this.groups = groups;
+        this.rules = rules;
+        this.conditionDepth = conditionDepth;
+        this.negated = negated;
+    }
+
+    /**
+     * @return e.g. "100 rules, depth 3, negated"
+     */
+    String getName() {
+        return String.format("%d rules, depth %d%s", rules, conditionDepth, negated ? ", negated" : "");
+    }
+
+    String generate(String behaviorSetJson) throws IOException {
+        ObjectNode behaviorSet = (ObjectNode) objectMapper.readTree(behaviorSetJson);
+        ArrayNode behaviorGroups = objectMapper.createArrayNode();
+        for (int group = 0; group < groups; group++) {
+            ObjectNode behaviorGroup = behaviorGroups.addObject();
+            behaviorGroup.put("name", "Generated_" + group);
+            ArrayNode behaviorRules = behaviorGroup.putArray("behaviorRules");
+            int rulesOfGroup = rules / groups + (group < rules % groups ? 1 : 0);
+            for (int rule = 0; rule < rulesOfGroup; rule++) {
+                String name = String.format("Generated_%d_%d", group, rule);
+                ObjectNode behaviorRule = behaviorRules.addObject();
+                behaviorRule.put("name", name);
+                behaviorRule.putArray("actions").add(name.toLowerCase(Locale.ROOT));
+                behaviorRule.putArray("conditions").add(createConditionTree(name, conditionDepth));
+            }
+        }
+
+        behaviorGroups.addAll((ArrayNode) behaviorSet.path("behaviorGroups"));
+        behaviorSet.set("behaviorGroups", behaviorGroups);
+        return objectMapper.writeValueAsString(behaviorSet);
+    }
+
+    private ObjectNode createConditionTree(String ruleName, int depth) {
+        if (depth <= 1) {
+            return createLeaf(ruleName, depth);
+        }
+
+        ObjectNode configs = objectMapper.createObjectNode().put("operator", "OR");
+        return createCondition("connector", configs, createLeaf(ruleName, depth),
+                createConditionTree(ruleName, depth - 1));
+    }
+
+    private ObjectNode createLeaf(String ruleName, int depth) {
+        if (!negated) {
+            ObjectNode configs = objectMapper.createObjectNode().
+                    put("expressions", String.format("%s_%d(*)", ruleName.toLowerCase(Locale.ROOT), depth)).
+                    put("occurrence", "currentStep");
+            return createCondition("inputmatcher", configs);
+        }
+
+        ObjectNode configs = objectMapper.createObjectNode().
+                put("maxTimesOccurred", UNLIMITED_OCCURRENCES).
+                put("behaviorRuleName", ruleName);
+        return createCondition("negation", objectMapper.createObjectNode(), createCondition("occurrence", configs));
+    }
+
+    private ObjectNode createCondition(String type, ObjectNode configs, ObjectNode... conditions) {
+        ObjectNode condition = objectMapper.createObjectNode();
+        condition.put("type", type);
+        condition.set("configs", configs);
+        ArrayNode nested = condition.putArray("conditions");
+        for (ObjectNode nestedCondition : conditions) {
+            nested.add(nestedCondition);
+        }
+        return condition;
+    }
+}
@@ -0,0 +1,170 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.transport.Transport;
+import ai.labs.testing.transport.TransportRequest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static ai.labs.testing.integration.RestBotEngineTest.Status;
+
+/**
+ * Deploys bots concurrently and polls their deployment status with exponential backoff plus jitter,
+ * without holding a thread per deployment. The time from the deploy request until the bot is READY
+ * is recorded as {@value #METRIC_TIME_TO_READY}. Closing it stops the threads that schedule the polls.
+ */
+@Slf4j
+class BotDeploymentOrchestrator implements AutoCloseable {
+    static final String METRIC_TIME_TO_READY = "deployment time-to-READY";
+    private static final String DEPLOY_PATH = "administration/unrestricted/deploy/%s?version=%s&autoDeploy=false";
+    private static final String DEPLOYMENT_STATUS_PATH = "administration/unrestricted/deploymentstatus/%s?version=%s";
+    private static final long INITIAL_POLL_DELAY_MILLIS = 50;
+    private static final long MAX_POLL_DELAY_MILLIS = 2000;
+    private static final Duration DEPLOYMENT_TIMEOUT = Duration.ofMinutes(5);
+
+    private final Transport transport;
+    private final LoadMetrics metrics;
+    private final ScheduledExecutorService scheduler;
+
+    BotDeploymentOrchestrator(Transport transport, LoadMetrics metrics) {
+        this.transport = transport;
+        this.metrics = metrics;
+        this.scheduler = Executors.newScheduledThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "bot-deployment");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    LoadMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Deploys all bots at once and waits until every one of them is READY.
+     */
+    void deployAll(List<ResourceId> bots) throws InterruptedException {
+        List<CompletableFuture<Duration>> deployments = new ArrayList<>();
+        for (ResourceId bot : bots) {
+            deployments.add(deploy(bot.getId(), bot.getVersion()));
+        }
+
+        try {
+            CompletableFuture.allOf(deployments.toArray(new CompletableFuture<?>[0])).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof InterruptedException) {
+                throw (InterruptedException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * A bot that is READY already (e.g. reused from the {@link FixtureCache}) isn't deployed again.
+     *
+     * @return the time it took until the bot was READY
+     */
+    CompletableFuture<Duration> deploy(String id, Integer version) {
+        return transport.sendAsync(createStatusRequest(id, version)).thenCompose(response -> {
+            if (Status.READY.equals(toStatus(response))) {
+                log.info(String.format("bot (id=%s , version=%s) is deployed already", id, version));
+                return CompletableFuture.completedFuture(Duration.ZERO);
+            }
+
+            return startDeployment(id, version);
+        });
+    }
+
+    private CompletableFuture<Duration> startDeployment(String id, Integer version) {
+        final long startTime = System.nanoTime();
+        CompletableFuture<Duration> deployment = new CompletableFuture<>();
+
+        transport.sendAsync(TransportRequest.post(String.format(DEPLOY_PATH, id, version))).
+                whenComplete((response, throwable) -> {
+                    if (throwable != null) {
+                        deployment.completeExceptionally(throwable);
+                    } else if (response.getStatusCode() >= 300) {
+                        deployment.completeExceptionally(deploymentFailed(id, version,
+                                "deploy returned " + response.getStatusCode()));
+                    } else {
+                        poll(id, version, startTime, INITIAL_POLL_DELAY_MILLIS, deployment);
+                    }
+                });
+
+        return deployment.whenComplete((timeToReady, throwable) -> {
+            metrics.endpoint(METRIC_TIME_TO_READY).record(startTime, System.nanoTime(), throwable == null);
+            if (throwable == null) {
+                log.info(String.format("bot (id=%s , version=%s) is READY after %d ms",
+                        id, version, timeToReady.toMillis()));
+            }
+        });
+    }
+
+    private void poll(String id, Integer version, long startTime, long delayMillis,
+                      CompletableFuture<Duration> deployment) {
+        scheduler.schedule(() -> transport.sendAsync(createStatusRequest(id, version)).
+                whenComplete((response, throwable) -> {
+                    if (throwable != null) {
+                        deployment.completeExceptionally(throwable);
+                        return;
+                    }
+
+                    Status status = toStatus(response);
+                    long elapsedNanos = System.nanoTime() - startTime;
+                    if (Status.READY.equals(status)) {
+                        deployment.complete(Duration.ofNanos(elapsedNanos));
+                    } else if (Status.ERROR.equals(status)) {
+                        deployment.completeExceptionally(deploymentFailed(id, version, "status ERROR"));
+                    } else if (elapsedNanos > DEPLOYMENT_TIMEOUT.toNanos()) {
+                        deployment.completeExceptionally(deploymentFailed(id, version,
+                                "still " + status + " after " + DEPLOYMENT_TIMEOUT));
+                    } else {
+                        poll(id, version, startTime, Math.min(delayMillis * 2, MAX_POLL_DELAY_MILLIS), deployment);
+                    }
+                }), withJitter(delayMillis), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdown();
+    }
+
+    private static TransportRequest createStatusRequest(String id, Integer version) {
+        return TransportRequest.get(String.format(DEPLOYMENT_STATUS_PATH, id, version), ContentType.TEXT.getAcceptHeader());
+    }
+
+    private static Status toStatus(Response response) {
+        try {
+            return Status.valueOf(response.getBody().asString().trim());
+        } catch (IllegalArgumentException e) {
+            // not (yet) known by the deployment status endpoint
+            return Status.NOT_FOUND;
+        }
+    }
+
+    /**
+     * Spreads polls of concurrently started deployments, so that they don't hit EDDI in lockstep.
+     *
+     * @return a random delay between delayMillis / 2 and delayMillis
+     */
+    private static long withJitter(long delayMillis) {
+        long half = delayMillis / 2;
+        return half + ThreadLocalRandom.current().nextLong(delayMillis - half + 1);
+    }
+
+    private static RuntimeException deploymentFailed(String id, Integer version, String reason) {
+        return new RuntimeException(String.format("Couldn't deploy Bot (id=%s,version=%s): %s", id, version, reason));
+    }
+}
@@ -2,12 +2,17 @@ package ai.labs.testing.integration;
 
 import ai.labs.testing.model.BotConfiguration;
 import ai.labs.testing.model.PackageConfiguration;
+import io.restassured.RestAssured;
 import io.restassured.response.Response;
 
 import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.notNullValue;
 
 /**
  * @author ginccc
@@ -15,47 +20,107 @@ import java.util.List;
 class BotEngineSetup extends BaseCRUDOperations {
     private static final String HEADER_LOCATION = "location";
     private final JsonSerialization jsonSerialization;
+    private final boolean useFixtureCache;
+    private final ParserExtensionOptions parserOptions;
+    private final boolean templating;
 
     BotEngineSetup() {
+        this(FixtureCache.isEnabled());
+    }
+
+    /**
+     * @param useFixtureCache reuse resources with the same content created earlier, see {@link FixtureCache}
+     */
+    BotEngineSetup(boolean useFixtureCache) {
+        this(useFixtureCache, ParserExtensionOptions.defaults());
+    }
+
+    /**
+     * @param parserOptions the dictionaries and corrections of the parser extension
+     */
+    BotEngineSetup(boolean useFixtureCache, ParserExtensionOptions parserOptions) {
+        this(useFixtureCache, parserOptions, true);
+    }
+
+    /**
+     * @param templating whether the package contains the templating extension, which renders the output
+     */
+    BotEngineSetup(boolean useFixtureCache, ParserExtensionOptions parserOptions, boolean templating) {
         jsonSerialization = JsonSerialization.getInstance();
+        this.useFixtureCache = useFixtureCache;
+        this.parserOptions = parserOptions;
+        this.templating = templating;
     }
 
 
     URI setupBot(String regularDictionaryPath, String behaviorPath, String outputPath) throws IOException, InterruptedException {
-        super.setup();
-
         // load test resources
-        String REGULAR_DICTIONARY = load(regularDictionaryPath);
-        String BEHAVIOR = load(behaviorPath);
-        String OUTPUT = load(outputPath);
+        return setupBotFromJson(load(regularDictionaryPath), load(behaviorPath), load(outputPath));
+    }
+
+    /**
+     * Same as {@link #setupBot(String, String, String)}, with the resources given as JSON instead of test
+     * resource paths, e.g. generated ones.
+     */
+    URI setupBotFromJson(String regularDictionary, String behavior, String output) throws IOException, InterruptedException {
+        return setupBotFromJson(regularDictionary, behavior, output, Collections.emptyMap());
+    }
+
+    /**
+     * @param propertyConfig the config of the property extension, e.g. its setOnActions
+     */
+    URI setupBotFromJson(String regularDictionary, String behavior, String output, Map<String, Object> propertyConfig)
+            throws IOException, InterruptedException {
+        super.setup();
 
         //create dictionary
-        String locationDictionary = createResource(REGULAR_DICTIONARY, "/regulardictionarystore/regulardictionaries");
+        String locationDictionary = createResource(regularDictionary, "/regulardictionarystore/regulardictionaries");
 
         //create behavior
-        String locationBehavior = createResource(BEHAVIOR, "/behaviorstore/behaviorsets");
+        String locationBehavior = createResource(behavior, "/behaviorstore/behaviorsets");
 
         //create output
-        String locationOutput = createResource(OUTPUT, "/outputstore/outputsets");
+        String locationOutput = createResource(output, "/outputstore/outputsets");
 
         //createPackage
+        PackageConfiguration packageConfig = createPackageConfiguration(locationDictionary, locationBehavior,
+                locationOutput, propertyConfig);
+        String locationPackage = createResource(jsonSerialization.toJson(packageConfig), "/packagestore/packages");
+
+
+        //createBot
+        BotConfiguration botConfig = createBotConfiguration(locationPackage);
+        return URI.create(createResource(jsonSerialization.toJson(botConfig), "/botstore/bots"));
+    }
+
+    PackageConfiguration createPackageConfiguration(String locationDictionary, String locationBehavior,
+                                                    String locationOutput) {
+        return createPackageConfiguration(locationDictionary, locationBehavior, locationOutput, Collections.emptyMap());
+    }
+
+    PackageConfiguration createPackageConfiguration(String locationDictionary, String locationBehavior,
+                                                    String locationOutput, Map<String, Object> propertyConfig) {
         PackageConfiguration packageConfig = new PackageConfiguration();
         packageConfig.getPackageExtensions().add(createParserExtension(locationDictionary));
         packageConfig.getPackageExtensions().add(createBehaviorExtension(locationBehavior));
         packageConfig.getPackageExtensions().add(createOutputExtension(locationOutput));
-        packageConfig.getPackageExtensions().add(createTemplateExtension());
-        packageConfig.getPackageExtensions().add(createPropertyExtraction());
-        String locationPackage = createResource(jsonSerialization.toJson(packageConfig), "/packagestore/packages");
-
+        if (templating) {
+            packageConfig.getPackageExtensions().add(createTemplateExtension());
+        }
+        packageConfig.getPackageExtensions().add(createPropertyExtraction(propertyConfig));
+        return packageConfig;
+    }
 
-        //createBot
+    BotConfiguration createBotConfiguration(String locationPackage) {
         BotConfiguration botConfig = new BotConfiguration();
         botConfig.getPackages().add(URI.create(locationPackage));
-        return URI.create(createResource(jsonSerialization.toJson(botConfig), "/botstore/bots"));
+        return botConfig;
     }
 
-    private PackageConfiguration.PackageExtension createPropertyExtraction() {
-        return createExtension("eddi://ai.labs.property");
+    private PackageConfiguration.PackageExtension createPropertyExtraction(Map<String, Object> propertyConfig) {
+        PackageConfiguration.PackageExtension extension = createExtension("eddi://ai.labs.property");
+        extension.getConfig().putAll(propertyConfig);
+        return extension;
     }
 
     private PackageConfiguration.PackageExtension createExtension(String type) {
@@ -76,12 +141,9 @@ class BotEngineSetup extends BaseCRUDOperations {
         PackageConfiguration.PackageExtension packageExtension = createExtension("eddi://ai.labs.parser");
         List<PackageConfiguration.PackageExtension> dictionaries = new ArrayList<>();
 
-        dictionaries.add(createExtension("eddi://ai.labs.parser.dictionaries.integer"));
-        dictionaries.add(createExtension("eddi://ai.labs.parser.dictionaries.decimal"));
-        dictionaries.add(createExtension("eddi://ai.labs.parser.dictionaries.punctuation"));
-        dictionaries.add(createExtension("eddi://ai.labs.parser.dictionaries.email"));
-        dictionaries.add(createExtension("eddi://ai.labs.parser.dictionaries.time"));
-        dictionaries.add(createExtension("eddi://ai.labs.parser.dictionaries.ordinalNumber"));
+        for (String dictionary : parserOptions.getDictionaries()) {
+            dictionaries.add(createExtension("eddi://ai.labs.parser.dictionaries." + dictionary));
+        }
         PackageConfiguration.PackageExtension regularDictionary =
                 createExtension("eddi://ai.labs.parser.dictionaries.regular");
         regularDictionary.getConfig().put("uri", locationDictionary);
@@ -90,10 +152,14 @@ class BotEngineSetup extends BaseCRUDOperations {
         packageExtension.getExtensions().put("dictionaries", dictionaries.toArray());
 
         List<PackageConfiguration.PackageExtension> corrections = new ArrayList<>();
-        PackageConfiguration.PackageExtension levenshtein = createExtension("eddi://ai.labs.parser.corrections.levenshtein");
-        levenshtein.getConfig().put("distance", "2");
-        corrections.add(levenshtein);
-        corrections.add(createExtension("eddi://ai.labs.parser.corrections.mergedTerms"));
+        if (parserOptions.getLevenshteinDistance() > 0) {
+            PackageConfiguration.PackageExtension levenshtein = createExtension("eddi://ai.labs.parser.corrections.levenshtein");
+            levenshtein.getConfig().put("distance", String.valueOf(parserOptions.getLevenshteinDistance()));
+            corrections.add(levenshtein);
+        }
+        if (parserOptions.isMergedTerms()) {
+            corrections.add(createExtension("eddi://ai.labs.parser.corrections.mergedTerms"));
+        }
 
         packageExtension.getExtensions().put("corrections", corrections.toArray());
         return packageExtension;
@@ -116,7 +182,17 @@ class BotEngineSetup extends BaseCRUDOperations {
     }
 
     private String createResource(String body, String resourceUri) {
+        if (useFixtureCache) {
+            return FixtureCache.getInstance(transport, RestAssured.baseURI, RestAssured.port).
+                    getOrCreate(resourceUri, body, () -> createAndGetLocation(body, resourceUri));
+        }
+
+        return createAndGetLocation(body, resourceUri);
+    }
+
+    private String createAndGetLocation(String body, String resourceUri) {
         Response response = create(body, resourceUri);
+        response.then().statusCode(201).header(HEADER_LOCATION, notNullValue());
         return response.getHeader(HEADER_LOCATION);
     }
 }
@@ -0,0 +1,111 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.load.ClosedLoopDriver;
+import ai.labs.testing.load.LoadConfiguration;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.LoadReport;
+import ai.labs.testing.load.VariantComparison;
+import ai.labs.testing.model.ConversationScript;
+import ai.labs.testing.model.InputData;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static ai.labs.testing.integration.ConversationLoadTest.ENDPOINT_CREATE_CONVERSATION;
+import static ai.labs.testing.integration.ConversationLoadTest.LOAD_USER_ID;
+
+/**
+ * Base of the load scenarios that deploy several variants of a bot and play the same scripts against one
+ * variant after the other, to compare their per-turn latency. A script with a context sends its inputs as
+ * InputData.
+ */
+@Slf4j
+abstract class BotVariantLoadTest extends BaseCRUDOperations {
+    private static final String ENDPOINT_TURN = "POST bots/unrestricted/{botId}/{conversationId} [%s]";
+
+    List<ConversationScript> scripts;
+
+    void loadScripts(String scriptsPath) throws IOException {
+        scripts = Arrays.asList(JsonSerialization.getInstance().toObject(load(scriptsPath), ConversationScript[].class));
+    }
+
+    /**
+     * Runs the closed loop against each bot, in the order of the map, and logs the per-turn latency of each
+     * next to its difference to the first one.
+     */
+    void compareVariants(String title, String scenario, Map<String, ResourceId> bots) throws Exception {
+        Map<String, BotVariant> variants = new LinkedHashMap<>();
+        bots.forEach((variant, botId) -> variants.put(variant, new BotVariant(botId, scripts)));
+        compareBotVariants(title, scenario, variants);
+    }
+
+    /**
+     * Same as {@link #compareVariants(String, String, Map)}, with scripts and a reference of their own per variant.
+     */
+    void compareBotVariants(String title, String scenario, Map<String, BotVariant> variants) throws Exception {
+        LoadConfiguration config = LoadConfiguration.fromSystemProperties();
+        VariantComparison comparison = new VariantComparison(title);
+
+        for (Map.Entry<String, BotVariant> entry : variants.entrySet()) {
+            String variant = entry.getKey();
+            String endpoint = String.format(ENDPOINT_TURN, variant);
+            LoadMetrics metrics = new LoadMetrics();
+            String userPrefix = namespaced(LOAD_USER_ID);
+            new ClosedLoopDriver(config).run(metrics, (userIndex, iteration) ->
+                    runScript(metrics, endpoint, entry.getValue(), userIndex, userPrefix + "-" + userIndex, iteration));
+            new LoadReport(scenario + "-" + variant, metrics).print(config.getReportDirectory());
+            comparison.add(variant, metrics.endpoint(endpoint), entry.getValue().getReference());
+        }
+
+        log.info(comparison.format());
+    }
+
+    private void runScript(LoadMetrics metrics, String endpoint, BotVariant variant, int userIndex, String userId,
+                           long iteration) throws Exception {
+        ResourceId botId = variant.getBotId();
+        List<ConversationScript> variantScripts = variant.getScripts();
+        ConversationScript script = variantScripts.get((int) ((userIndex + iteration) % variantScripts.size()));
+        ResourceId conversationId = metrics.time(ENDPOINT_CREATE_CONVERSATION,
+                () -> createConversation(botId.getId(), userId));
+
+        for (String input : script.getInputs()) {
+            metrics.time(endpoint, () -> script.getContext().isEmpty() ?
+                            sendUserInput(botId, conversationId, input,
+                                    script.isReturnDetailed(), script.isReturnCurrentStepOnly()) :
+                            sendUserInput(botId, conversationId, new InputData(input, script.getContext()),
+                                    script.isReturnDetailed(), script.isReturnCurrentStepOnly()),
+                    response -> response.getStatusCode() == 200);
+        }
+    }
+
+    static List<Integer> parseIntegers(String values) {
+        List<Integer> integers = new ArrayList<>();
+        for (String value : values.split(",")) {
+            integers.add(Integer.parseInt(value.trim()));
+        }
+        return integers;
+    }
+
+    /**
+     * A deployed bot, the scripts to play against it and the variant it is compared to (null for the first).
+     */
+    @Getter
+    @AllArgsConstructor
+    static class BotVariant {
+        private final ResourceId botId;
+        private final List<ConversationScript> scripts;
+        private final String reference;
+
+        BotVariant(ResourceId botId, List<ConversationScript> scripts) {
+            this(botId, scripts, null);
+        }
+    }
+}
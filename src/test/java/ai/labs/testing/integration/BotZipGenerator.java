@@ -0,0 +1,169 @@
+package ai.labs.testing.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Builds bot zips for /backup/import in memory, laid out like tests/useCases/weather_bot_v1.zip: a directory
+ * per package holding its resources and their descriptors, next to the bot and its descriptor. Every package is
+ * the bot of RestBotEngineTest with dictionaries more regular dictionaries of generated words
+ * ({@link RegularDictionaryGenerator}), behaviorRules more rules ({@link BehaviorSetGenerator}), outputs more
+ * outputs per action ({@link OutputSetGenerator}) and an httpcalls resource without calls.
+ */
+class BotZipGenerator {
+    private static final String RESOURCE_URI = "eddi://ai.labs.%s/%sstore/%s/%s?version=1";
+    private static final String VERSION = "1";
+    private static final int BEHAVIOR_GROUPS = 10;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int packages;
+    private final int dictionaries;
+    private final int words;
+    private final int behaviorRules;
+    private final int outputs;
+
+    BotZipGenerator(int packages, int dictionaries, int words, int behaviorRules, int outputs) {
+        this.packages = packages;
+        this.dictionaries = dictionaries;
+        this.words = words;
+        this.behaviorRules = behaviorRules;
+        this.outputs = outputs;
+    }
+
+    /**
+     * @return e.g. "5 packages, 1 x 1000 words, 100 rules, 10 outputs"
+     */
+    String getName() {
+        return String.format("%d packages, %d x %d words, %d rules, %d outputs",
+                packages, dictionaries, words, behaviorRules, outputs);
+    }
+
+    /**
+     * Every call generates new ids, the resources themselves are the same.
+     */
+    byte[] generate(String regularDictionaryJson, String behaviorSetJson, String outputSetJson) throws IOException {
+        byte[] regularDictionary = regularDictionaryJson.getBytes(StandardCharsets.UTF_8);
+        byte[] generatedDictionary = new RegularDictionaryGenerator(words, words / 10, 0).generate();
+        int groups = Math.max(1, Math.min(BEHAVIOR_GROUPS, behaviorRules));
+        String behaviorSet = new BehaviorSetGenerator(groups, behaviorRules, 1, false).
+                generate(behaviorSetJson);
+        String outputSet = new OutputSetGenerator(outputs, 1, 0, 0).generate(outputSetJson);
+        byte[] httpCalls = objectMapper.writeValueAsBytes(objectMapper.createObjectNode().
+                put("targetServerUrl", "http://localhost").
+                set("httpCalls", objectMapper.createArrayNode()));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ZipOutputStream zip = new ZipOutputStream(out)) {
+            List<String> packageUris = new ArrayList<>();
+            for (int i = 0; i < packages; i++) {
+                String packageId = newId();
+                String directory = packageId + "/" + VERSION + "/";
+                zip.putNextEntry(new ZipEntry(packageId + "/"));
+                zip.putNextEntry(new ZipEntry(directory));
+
+                ArrayNode dictionaryConfigs = objectMapper.createArrayNode();
+                dictionaryConfigs.add(createDictionaryConfig(zip, directory, regularDictionary));
+                for (int dictionary = 0; dictionary < dictionaries; dictionary++) {
+                    dictionaryConfigs.add(createDictionaryConfig(zip, directory, generatedDictionary));
+                }
+
+                ObjectNode packageConfig = objectMapper.createObjectNode();
+                ArrayNode packageExtensions = packageConfig.putArray("packageExtensions");
+                ObjectNode parser = packageExtensions.addObject().put("type", "eddi://ai.labs.parser");
+                parser.putObject("extensions").set("dictionaries", dictionaryConfigs);
+                parser.putObject("config");
+                addExtension(packageExtensions, "behavior", putResource(zip, directory,
+                        "behavior", "behaviorsets", "behavior", behaviorSet.getBytes(StandardCharsets.UTF_8)));
+                addExtension(packageExtensions, "httpcalls", putResource(zip, directory,
+                        "httpcalls", "httpcalls", "httpcalls", httpCalls));
+                addExtension(packageExtensions, "output", putResource(zip, directory,
+                        "output", "outputsets", "output", outputSet.getBytes(StandardCharsets.UTF_8)));
+                addExtension(packageExtensions, "templating", null);
+
+                putEntry(zip, directory + packageId + ".package.json", objectMapper.writeValueAsBytes(packageConfig));
+                String packageUri = String.format(RESOURCE_URI, "package", "package", "packages", packageId);
+                putEntry(zip, directory + packageId + ".descriptor.json", createDescriptor(packageUri, "package " + i));
+                packageUris.add(packageUri);
+            }
+
+            String botId = newId();
+            ObjectNode bot = objectMapper.createObjectNode();
+            ArrayNode botPackages = bot.putArray("packages");
+            packageUris.forEach(botPackages::add);
+            bot.putArray("channels");
+            putEntry(zip, botId + ".bot.json", objectMapper.writeValueAsBytes(bot));
+            putEntry(zip, botId + ".descriptor.json", createDescriptor(
+                    String.format(RESOURCE_URI, "bot", "bot", "bots", botId), getName()));
+        }
+
+        return out.toByteArray();
+    }
+
+    private ObjectNode createDictionaryConfig(ZipOutputStream zip, String directory, byte[] dictionary)
+            throws IOException {
+        ObjectNode config = objectMapper.createObjectNode().put("type", "eddi://ai.labs.parser.dictionaries.regular");
+        config.putObject("config").put("uri", putResource(zip, directory,
+                "regulardictionary", "regulardictionaries", "regulardictionary", dictionary));
+        return config;
+    }
+
+    /**
+     * Writes the resource and its descriptor.
+     *
+     * @return the URI of the resource
+     */
+    private String putResource(ZipOutputStream zip, String directory, String type, String collection,
+                               String extension, byte[] content) throws IOException {
+        String id = newId();
+        String uri = String.format(RESOURCE_URI, type, type, collection, id);
+        putEntry(zip, directory + id + "." + extension + ".json", content);
+        putEntry(zip, directory + id + ".descriptor.json", createDescriptor(uri, ""));
+        return uri;
+    }
+
+    private void addExtension(ArrayNode packageExtensions, String type, String uri) {
+        ObjectNode extension = packageExtensions.addObject().put("type", "eddi://ai.labs." + type);
+        extension.putObject("extensions");
+        ObjectNode config = extension.putObject("config");
+        if (uri != null) {
+            config.put("uri", uri);
+        }
+    }
+
+    private byte[] createDescriptor(String resourceUri, String name) throws IOException {
+        long now = System.currentTimeMillis();
+        return objectMapper.writeValueAsBytes(objectMapper.createObjectNode().
+                put("resource", resourceUri).
+                putNull("createdBy").
+                put("createdOn", now).
+                putNull("lastModifiedBy").
+                put("lastModifiedOn", now).
+                put("deleted", false).
+                put("name", name).
+                put("description", ""));
+    }
+
+    private static void putEntry(ZipOutputStream zip, String name, byte[] content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        zip.write(content);
+        zip.closeEntry();
+    }
+
+    /**
+     * @return a random id in the format of EDDI's (MongoDB) ids, 24 hex digits
+     */
+    private static String newId() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        return String.format("%08x%016x", random.nextInt(), random.nextLong());
+    }
+}
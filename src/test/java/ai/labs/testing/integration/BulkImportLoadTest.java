@@ -0,0 +1,183 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.UriUtilities;
+import ai.labs.testing.load.ClosedLoopDriver;
+import ai.labs.testing.load.EndpointMetrics;
+import ai.labs.testing.load.LoadConfiguration;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.LoadReport;
+import ai.labs.testing.load.VariantComparison;
+import ai.labs.testing.transport.TransportRequest;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static ai.labs.testing.integration.ConversationLengthLoadTest.INPUTS;
+import static ai.labs.testing.integration.ConversationLoadTest.LOAD_USER_ID;
+
+/**
+ * Imports -Deddi.load.imports bot zips through /backup/import, -Deddi.load.importConcurrency at a time, and
+ * deploys each as soon as it is imported, while virtual users talk to the bot of RestBotEngineTest. The zips
+ * are streamed into the request, from disk or, with -Deddi.load.importSource=memory, from one copy in memory;
+ * by default each one is tests/useCases/weather_bot_v1.zip. The imports start -Deddi.load.importDelay seconds
+ * after the warmup. Logs import throughput, import latency and time from import to READY, and the latency of
+ * the live conversations before, during and after the imports.
+ */
+@Slf4j
+@Test(groups = "load")
+public class BulkImportLoadTest extends BaseCRUDOperations {
+    static final String ENDPOINT_IMPORT = "POST backup/import";
+    static final String METRIC_IMPORT_TO_READY = "import time-to-READY";
+    private static final String ENDPOINT_LIVE_TURN = "POST bots/unrestricted/{botId}/{conversationId} [%s]";
+    private static final String PHASE_BEFORE = "before import";
+    private static final String PHASE_DURING = "during import";
+    private static final String PHASE_AFTER = "after import";
+    private static final String ZIP = "application/zip";
+
+    private ResourceId liveBotResourceId;
+    private int imports;
+    private int importConcurrency;
+    private Duration importDelay;
+    private Supplier<InputStream> zip;
+    private volatile String phase = PHASE_BEFORE;
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+
+        final Properties props = System.getProperties();
+        imports = Integer.parseInt(props.getProperty("eddi.load.imports", "100"));
+        importConcurrency = Integer.parseInt(props.getProperty("eddi.load.importConcurrency", "20"));
+        importDelay = Duration.ofSeconds(Long.parseLong(props.getProperty("eddi.load.importDelay", "10")));
+        Path zipFile = getFile("tests/useCases/" + props.getProperty("eddi.load.importZip", "weather_bot_v1") + ".zip").toPath();
+        if ("memory".equals(props.getProperty("eddi.load.importSource", "disk"))) {
+            byte[] zipBytes = Files.readAllBytes(zipFile);
+            zip = () -> new ByteArrayInputStream(zipBytes);
+        } else {
+            zip = () -> {
+                try {
+                    return Files.newInputStream(zipFile);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+        }
+
+        liveBotResourceId = deployBot("botengine/regularDictionary.json",
+                "botengine/behavior.json",
+                "botengine/output.json");
+    }
+
+    public void bulkImport() throws Exception {
+        LoadConfiguration config = LoadConfiguration.fromSystemProperties();
+        LoadMetrics live = new LoadMetrics();
+        LoadMetrics importMetrics = new LoadMetrics();
+
+        ExecutorService driver = config.getExecutionMode().newExecutor("live-conversations-", 1);
+        String userPrefix = namespaced(LOAD_USER_ID);
+        Future<?> liveConversations = driver.submit(() -> {
+            new ClosedLoopDriver(config).run(live, (userIndex, iteration) ->
+                    runConversation(live, userPrefix + "-" + userIndex));
+            return null;
+        });
+        driver.shutdown();
+
+        TimeUnit.NANOSECONDS.sleep(config.getWarmup().plus(importDelay).toNanos());
+        phase = PHASE_DURING;
+        long importStart = System.nanoTime();
+        importAll(importMetrics, zip, imports, importConcurrency);
+        double importSeconds = (System.nanoTime() - importStart) / 1e9;
+        phase = PHASE_AFTER;
+        liveConversations.get();
+        importMetrics.stop();
+
+        new LoadReport("bulk-import", importMetrics).print(config.getReportDirectory());
+        new LoadReport("bulk-import-live-conversations", live).print(config.getReportDirectory());
+        EndpointMetrics importToReady = importMetrics.endpoint(METRIC_IMPORT_TO_READY);
+        log.info(String.format("%d bots imported and READY in %.1f s (%.2f bots/s, %d failed), %d at a time",
+                importToReady.getHistogram().getTotalCount(), importSeconds,
+                importToReady.getHistogram().getTotalCount() / importSeconds, importToReady.getErrors(),
+                importConcurrency));
+
+        VariantComparison comparison = new VariantComparison("live conversation turns around the bulk import");
+        for (String livePhase : new String[]{PHASE_BEFORE, PHASE_DURING, PHASE_AFTER}) {
+            comparison.add(livePhase, live.endpoint(String.format(ENDPOINT_LIVE_TURN, livePhase)));
+        }
+        log.info(comparison.format());
+        if (live.endpoint(String.format(ENDPOINT_LIVE_TURN, PHASE_AFTER)).getHistogram().getTotalCount() == 0) {
+            log.warn("the imports took longer than the live conversations ran, raise -Deddi.load.duration");
+        }
+    }
+
+    /**
+     * Imports the zip the given number of times, at most concurrency at a time, and deploys every imported bot
+     * right away. Records {@value #ENDPOINT_IMPORT} and {@value #METRIC_IMPORT_TO_READY}, from the start of the
+     * upload until the bot is READY, and waits until all are READY or failed. The uploads run on threads of
+     * their own, so that blocking transports upload concurrently as well.
+     */
+    static void importAll(LoadMetrics metrics, Supplier<InputStream> zip, int count, int concurrency)
+            throws InterruptedException {
+        try (BotDeploymentOrchestrator orchestrator = new BotDeploymentOrchestrator(transport, metrics)) {
+            ExecutorService uploaders = LoadConfiguration.fromSystemProperties().getExecutionMode().
+                    newExecutor("bot-import-", concurrency);
+            Semaphore uploads = new Semaphore(concurrency);
+            List<CompletableFuture<?>> deployments = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                uploads.acquire();
+                long start = System.nanoTime();
+                CompletableFuture<ResourceId> imported = metrics.timeAsync(ENDPOINT_IMPORT,
+                        () -> CompletableFuture.supplyAsync(
+                                () -> transport.send(TransportRequest.post("backup/import", ZIP, zip)), uploaders),
+                        response -> response.getStatusCode() == 200).
+                        thenApply(BulkImportLoadTest::toBotId).
+                        whenComplete((botId, throwable) -> uploads.release());
+                deployments.add(imported.
+                        thenCompose(botId -> orchestrator.deploy(botId.getId(), botId.getVersion())).
+                        whenComplete((timeToReady, throwable) ->
+                                metrics.endpoint(METRIC_IMPORT_TO_READY).record(start, System.nanoTime(), throwable == null)));
+            }
+
+            uploaders.shutdown();
+
+            for (CompletableFuture<?> deployment : deployments) {
+                try {
+                    deployment.join();
+                } catch (RuntimeException e) {
+                    log.debug(e.getLocalizedMessage(), e);
+                }
+            }
+        }
+    }
+
+    private void runConversation(LoadMetrics metrics, String userId) throws Exception {
+        String endpoint = String.format(ENDPOINT_LIVE_TURN, phase);
+        ResourceId conversationId = createConversation(liveBotResourceId.getId(), userId);
+        for (String input : INPUTS) {
+            metrics.time(endpoint, () -> sendUserInput(liveBotResourceId, conversationId, input, false, true),
+                    response -> response.getStatusCode() == 200);
+        }
+    }
+
+    private static ResourceId toBotId(Response response) {
+        return UriUtilities.extractResourceId(response.getHeader("location"));
+    }
+}
@@ -0,0 +1,126 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.load.EndpointMetrics;
+import ai.labs.testing.load.LoadConfiguration;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.LoadReport;
+import ai.labs.testing.transport.TransportRequest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static ai.labs.testing.integration.ConversationLoadTest.LOAD_USER_ID;
+
+/**
+ * Drives one conversation per combination of returnDetailed and returnCurrentStepOnly with the bot of
+ * RestBotEngineTest to the longest of -Deddi.load.conversationLengths steps, sequentially, so that only the
+ * conversation length changes. Latency and response size of the turns are recorded per length interval, and
+ * each time the first conversation reaches a length its log is read -Deddi.load.logReads times (GET, with and
+ * without returnDetailed). Shows from which length on loading and saving the conversation memory dominates a turn.
+ */
+@Slf4j
+@Test(groups = "load")
+public class ConversationLengthLoadTest extends BaseCRUDOperations {
+    private static final String ENDPOINT_TURN =
+            "POST bots/unrestricted/{botId}/{conversationId} [detailed=%s, currentStepOnly=%s, steps %d-%d]";
+    private static final String ENDPOINT_READ_LOG =
+            "GET bots/unrestricted/{botId}/{conversationId} [detailed=%s, %d steps]";
+    private static final String CONVERSATION_PATH = "bots/unrestricted/%s/%s?returnDetailed=%s&returnCurrentStepOnly=%s";
+    /**
+     * none of them ends the conversation
+     */
+    static final List<String> INPUTS = Arrays.asList("hello", "question", "Option 1", "property", "good afternoon");
+    private static final String ROW_FORMAT = "%n%-72s %8d %10.2f %10.2f %10.1f %10.1f";
+    private static final double MICROS_PER_MILLI = 1000d;
+    private static final double BYTES_PER_KB = 1024d;
+    private static final String TEXT = ContentType.TEXT.toString();
+
+    private ResourceId botResourceId;
+    private List<Integer> lengths;
+    private int logReads;
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+
+        final Properties props = System.getProperties();
+        lengths = BotVariantLoadTest.parseIntegers(props.getProperty("eddi.load.conversationLengths", "10,100,1000,5000"));
+        logReads = Integer.parseInt(props.getProperty("eddi.load.logReads", "10"));
+        botResourceId = deployBot("botengine/regularDictionary.json",
+                "botengine/behavior.json",
+                "botengine/output.json");
+    }
+
+    public void conversationLength() throws Exception {
+        LoadMetrics metrics = new LoadMetrics();
+        StringBuilder table = new StringBuilder(String.format("%-72s %8s %10s %10s %10s %10s",
+                "request", "count", "p50 ms", "p99 ms", "mean KB", "max KB"));
+
+        // the stored conversation is the same whatever flags the turns had, its log is read from the first only
+        boolean readLogs = true;
+        for (boolean returnDetailed : new boolean[]{false, true}) {
+            for (boolean returnCurrentStepOnly : new boolean[]{true, false}) {
+                ResourceId conversationId = createConversation(botResourceId.getId(), namespaced(LOAD_USER_ID));
+                int steps = 1;
+                for (int length : lengths) {
+                    String endpoint = String.format(ENDPOINT_TURN, returnDetailed, returnCurrentStepOnly, steps + 1, length);
+                    Histogram responseBytes = newBytesHistogram();
+                    for (; steps < length; steps++) {
+                        String input = INPUTS.get(steps % INPUTS.size());
+                        Response response = metrics.time(endpoint, () -> transport.send(TransportRequest.post(
+                                conversationPath(conversationId, returnDetailed, returnCurrentStepOnly), TEXT, input)),
+                                turn -> turn.getStatusCode() == 200);
+                        responseBytes.recordValue(response.getBody().asByteArray().length);
+                    }
+                    appendRow(table, metrics.endpoint(endpoint), responseBytes);
+
+                    for (boolean detailedLog : readLogs ? new boolean[]{false, true} : new boolean[0]) {
+                        String readEndpoint = String.format(ENDPOINT_READ_LOG, detailedLog, steps);
+                        Histogram logBytes = newBytesHistogram();
+                        for (int i = 0; i < logReads; i++) {
+                            Response response = metrics.time(readEndpoint, () -> transport.send(TransportRequest.get(
+                                    conversationPath(conversationId, detailedLog, false))),
+                                    read -> read.getStatusCode() == 200);
+                            logBytes.recordValue(response.getBody().asByteArray().length);
+                        }
+                        appendRow(table, metrics.endpoint(readEndpoint), logBytes);
+                    }
+                }
+                readLogs = false;
+            }
+        }
+
+        metrics.stop();
+        new LoadReport("conversation-length", metrics).print(LoadConfiguration.fromSystemProperties().getReportDirectory());
+        log.info(String.format("latency and response size by conversation length%n%s", table));
+    }
+
+    private String conversationPath(ResourceId conversationId, boolean returnDetailed, boolean returnCurrentStepOnly) {
+        return String.format(CONVERSATION_PATH, botResourceId.getId(), conversationId.getId(),
+                returnDetailed, returnCurrentStepOnly);
+    }
+
+    private static Histogram newBytesHistogram() {
+        return new Histogram(2);
+    }
+
+    private static void appendRow(StringBuilder table, EndpointMetrics endpoint, Histogram bytes) {
+        Histogram latency = endpoint.getHistogram();
+        String name = endpoint.getEndpoint();
+        table.append(String.format(ROW_FORMAT, name.substring(0, name.indexOf(' ')) + " " + name.substring(name.indexOf('[')),
+                latency.getTotalCount(),
+                latency.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                latency.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                bytes.getMean() / BYTES_PER_KB,
+                bytes.getMaxValue() / BYTES_PER_KB));
+    }
+}
@@ -0,0 +1,234 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.load.ClosedLoopDriver;
+import ai.labs.testing.load.ExecutionMode;
+import ai.labs.testing.load.LoadGeneratorMonitor;
+import ai.labs.testing.load.LoadConfiguration;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.LoadReport;
+import ai.labs.testing.load.OpenLoopDriver;
+import ai.labs.testing.model.ConversationScript;
+import ai.labs.testing.model.InputData;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/**
+ * Drives concurrent virtual users through scripted conversations.
+ * The bot is chosen with -Deddi.load.bot: "botengine" sets up the bot of RestBotEngineTest,
+ * any other value imports tests/useCases/{value}.zip. The scripts are read from tests/load/{value}.json,
+ * a script with a context sends its inputs as InputData JSON.
+ */
+@Slf4j
+@Test(groups = "load")
+public class ConversationLoadTest extends BaseCRUDOperations {
+    static final String ENDPOINT_CREATE_CONVERSATION = "POST bots/unrestricted/{botId}";
+    static final String ENDPOINT_SEND_USER_INPUT = "POST bots/unrestricted/{botId}/{conversationId}";
+    static final String LOAD_USER_ID = "loadUser";
+    private static final String BOT_ENGINE = "botengine";
+
+    private final JsonSerialization jsonSerialization;
+    ResourceId botResourceId;
+    List<ConversationScript> scripts;
+
+    public ConversationLoadTest() {
+        jsonSerialization = JsonSerialization.getInstance();
+    }
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+
+        String bot = System.getProperty("eddi.load.bot", BOT_ENGINE);
+        if (BOT_ENGINE.equals(bot)) {
+            botResourceId = deployBot("botengine/regularDictionary.json",
+                    "botengine/behavior.json",
+                    "botengine/output.json");
+        } else {
+            botResourceId = importBot(bot);
+        }
+
+        scripts = Arrays.asList(jsonSerialization.toObject(load("load/" + bot + ".json"), ConversationScript[].class));
+    }
+
+    public void closedLoopConversations() throws Exception {
+        runClosedLoop(LoadConfiguration.fromSystemProperties(), "closed-loop-conversations");
+    }
+
+    /**
+     * Runs the closed loop once on platform threads and once on virtual threads, with the same settings.
+     */
+    public void executionModeComparison() throws Exception {
+        for (ExecutionMode executionMode : ExecutionMode.values()) {
+            LoadConfiguration config = LoadConfiguration.fromSystemProperties();
+            config.setExecutionMode(executionMode);
+            runClosedLoop(config, "closed-loop-conversations-" + executionMode.name().toLowerCase());
+        }
+    }
+
+    private void runClosedLoop(LoadConfiguration config, String scenario) throws Exception {
+        LoadMetrics metrics = new LoadMetrics();
+        LoadGeneratorMonitor monitor = new LoadGeneratorMonitor();
+        String userPrefix = namespaced(LOAD_USER_ID);
+
+        monitor.start();
+        new ClosedLoopDriver(config).run(metrics,
+                (userIndex, iteration) -> runScript(metrics, userPrefix, userIndex, iteration));
+        monitor.stop();
+
+        new LoadReport(scenario, metrics).print(config.getReportDirectory());
+        log.info(String.format("%s (%s threads)", monitor.format(), config.getExecutionMode().name().toLowerCase()));
+    }
+
+    /**
+     * Closed loop without a thread per virtual user: each conversation is a chain of non-blocking calls.
+     * Meant to be run with -Deddi.transport=httpclient, RestAssured blocks the calling thread anyway.
+     */
+    public void pipelinedConversations() throws Exception {
+        LoadConfiguration config = LoadConfiguration.fromSystemProperties();
+        LoadMetrics metrics = new LoadMetrics();
+        LoadGeneratorMonitor monitor = new LoadGeneratorMonitor();
+        String userPrefix = namespaced(LOAD_USER_ID);
+
+        monitor.start();
+        new ClosedLoopDriver(config).runAsync(metrics,
+                (userIndex, iteration) -> runScriptAsync(metrics, userPrefix, userIndex, iteration));
+        monitor.stop();
+
+        new LoadReport("pipelined-conversations", metrics).print(config.getReportDirectory());
+        log.info(monitor.format());
+    }
+
+    /**
+     * Sends user inputs at -Deddi.load.rate requests per second, spread over -Deddi.load.users open
+     * conversations. A conversation that has played its script is replaced by a new one.
+     */
+    public void openLoopConversations() throws Exception {
+        LoadConfiguration config = LoadConfiguration.fromSystemProperties();
+        LoadMetrics metrics = new LoadMetrics();
+
+        String userPrefix = namespaced(LOAD_USER_ID);
+        BlockingQueue<OpenConversation> conversations = new LinkedBlockingQueue<>();
+        for (int i = 0; i < config.getVirtualUsers(); i++) {
+            OpenConversation conversation = new OpenConversation(i, userPrefix + "-" + i);
+            conversation.renew(metrics);
+            conversations.add(conversation);
+        }
+
+        new OpenLoopDriver(config).run(metrics, intendedStartNanos -> {
+            OpenConversation conversation = conversations.take();
+            try {
+                if (conversation.conversationId == null) {
+                    // the last renewal failed
+                    conversation.renew(metrics);
+                }
+                String input = conversation.nextInput();
+                metrics.time(ENDPOINT_SEND_USER_INPUT, intendedStartNanos,
+                        () -> sendTurn(conversation.script, conversation.conversationId, input),
+                        response -> response.getStatusCode() == 200);
+            } catch (Exception e) {
+                conversation.conversationId = null;
+                throw e;
+            } finally {
+                try {
+                    if (conversation.isFinished()) {
+                        conversation.renew(metrics);
+                    }
+                } finally {
+                    conversations.put(conversation);
+                }
+            }
+        });
+
+        new LoadReport("open-loop-conversations", metrics).print(config.getReportDirectory());
+    }
+
+    void runScript(LoadMetrics metrics, String userPrefix, int userIndex, long iteration) throws Exception {
+        ConversationScript script = scripts.get((int) ((userIndex + iteration) % scripts.size()));
+        ResourceId conversationId = metrics.time(ENDPOINT_CREATE_CONVERSATION,
+                () -> createConversation(botResourceId.getId(), userPrefix + "-" + userIndex));
+
+        for (String input : script.getInputs()) {
+            metrics.time(ENDPOINT_SEND_USER_INPUT,
+                    () -> sendTurn(script, conversationId, input),
+                    response -> response.getStatusCode() == 200);
+        }
+    }
+
+    CompletableFuture<?> runScriptAsync(LoadMetrics metrics, String userPrefix, int userIndex, long iteration) {
+        ConversationScript script = scripts.get((int) ((userIndex + iteration) % scripts.size()));
+        return metrics.timeAsync(ENDPOINT_CREATE_CONVERSATION,
+                () -> createConversationAsync(botResourceId.getId(), userPrefix + "-" + userIndex),
+                conversationId -> true).
+                thenCompose(conversationId -> {
+                    CompletableFuture<?> turns = CompletableFuture.completedFuture(null);
+                    for (String input : script.getInputs()) {
+                        turns = turns.thenCompose(previous -> metrics.timeAsync(ENDPOINT_SEND_USER_INPUT,
+                                () -> sendTurnAsync(script, conversationId, input),
+                                response -> response.getStatusCode() == 200));
+                    }
+                    return turns;
+                });
+    }
+
+    private Response sendTurn(ConversationScript script, ResourceId conversationId, String input)
+            throws IOException {
+        if (script.getContext().isEmpty()) {
+            return sendUserInput(botResourceId, conversationId, input,
+                    script.isReturnDetailed(), script.isReturnCurrentStepOnly());
+        }
+
+        return sendUserInput(botResourceId, conversationId, new InputData(input, script.getContext()),
+                script.isReturnDetailed(), script.isReturnCurrentStepOnly());
+    }
+
+    private CompletableFuture<Response> sendTurnAsync(ConversationScript script, ResourceId conversationId,
+                                                      String input) {
+        if (script.getContext().isEmpty()) {
+            return sendUserInputAsync(botResourceId, conversationId, input,
+                    script.isReturnDetailed(), script.isReturnCurrentStepOnly());
+        }
+
+        return sendUserInputAsync(botResourceId, conversationId, new InputData(input, script.getContext()),
+                script.isReturnDetailed(), script.isReturnCurrentStepOnly());
+    }
+
+    private class OpenConversation {
+        private final int userIndex;
+        private final String userId;
+        private long iteration;
+        private ConversationScript script;
+        private ResourceId conversationId;
+        private int turn;
+
+        OpenConversation(int userIndex, String userId) {
+            this.userIndex = userIndex;
+            this.userId = userId;
+        }
+
+        boolean isFinished() {
+            return conversationId == null || turn >= script.getInputs().size();
+        }
+
+        String nextInput() {
+            return script.getInputs().get(turn++);
+        }
+
+        void renew(LoadMetrics metrics) throws Exception {
+            conversationId = null;
+            script = scripts.get((int) ((userIndex + iteration++) % scripts.size()));
+            turn = 0;
+            conversationId = metrics.time(ENDPOINT_CREATE_CONVERSATION,
+                    () -> createConversation(botResourceId.getId(), userId));
+        }
+    }
+}
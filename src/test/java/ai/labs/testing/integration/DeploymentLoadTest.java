@@ -0,0 +1,46 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.UriUtilities;
+import ai.labs.testing.load.LoadConfiguration;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.LoadReport;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Deploys -Deddi.load.bots freshly created bots at the same time and reports their time-to-READY.
+ */
+@Test(groups = "load")
+public class DeploymentLoadTest extends BaseCRUDOperations {
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+    }
+
+    public void parallelDeployment() throws Exception {
+        LoadConfiguration config = LoadConfiguration.fromSystemProperties();
+
+        List<ResourceId> bots = new ArrayList<>();
+        for (int i = 0; i < config.getBots(); i++) {
+            // bypass the fixture cache, it would hand out the same bot every time
+            bots.add(UriUtilities.extractResourceId(new BotEngineSetup(false).setupBot(
+                    "botengine/regularDictionary.json",
+                    "botengine/behavior.json",
+                    "botengine/output.json")));
+        }
+
+        LoadMetrics metrics = new LoadMetrics();
+        try (BotDeploymentOrchestrator orchestrator = new BotDeploymentOrchestrator(transport, metrics)) {
+            orchestrator.deployAll(bots);
+        }
+        metrics.stop();
+
+        new LoadReport("parallel-deployment", metrics).print(config.getReportDirectory());
+    }
+}
@@ -0,0 +1,153 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.transport.Transport;
+import ai.labs.testing.transport.TransportRequest;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Remembers the location of every resource created by {@link BotEngineSetup}, keyed by a SHA-256 hash of
+ * the EDDI instance, the store path and the resource JSON. Since packages and bots reference their
+ * resources by location, their hash covers the whole composition. The cache is persisted
+ * (-Deddi.fixtureCache.file, default target/fixture-cache.properties), a cached resource is reused across
+ * test classes and runs as long as a HEAD request confirms that it still exists. The requests are sent
+ * without holding a lock, callers asking for the same resource at the same time wait for the first one.
+ */
+@Slf4j
+class FixtureCache {
+    private static final String DEFAULT_CACHE_FILE = "target/fixture-cache.properties";
+    private static FixtureCache instance;
+
+    private final Transport transport;
+    private final String instanceKey;
+    private final Path cacheFile;
+    private final Properties locations = new Properties();
+    private final Map<String, CompletableFuture<String>> resolving = new ConcurrentHashMap<>();
+
+    static synchronized FixtureCache getInstance(Transport transport, String baseUri, int port) {
+        if (instance == null) {
+            Path cacheFile = Paths.get(System.getProperty("eddi.fixtureCache.file", DEFAULT_CACHE_FILE));
+            instance = new FixtureCache(transport, baseUri + ":" + port, cacheFile);
+        }
+
+        return instance;
+    }
+
+    static boolean isEnabled() {
+        return Boolean.parseBoolean(System.getProperty("eddi.fixtureCache", "true"));
+    }
+
+    private FixtureCache(Transport transport, String instanceKey, Path cacheFile) {
+        this.transport = transport;
+        this.instanceKey = instanceKey;
+        this.cacheFile = cacheFile;
+
+        if (Files.exists(cacheFile)) {
+            try (InputStream in = Files.newInputStream(cacheFile)) {
+                locations.load(in);
+            } catch (IOException e) {
+                log.warn(String.format("ignoring unreadable fixture cache %s", cacheFile), e);
+            }
+        }
+    }
+
+    /**
+     * @param storePath path of the store the resource would be created in
+     * @param json      the resource
+     * @param creator   creates the resource and returns its location, called if there is no usable cached one
+     * @return the location of the resource
+     */
+    String getOrCreate(String storePath, String json, Supplier<String> creator) {
+        String key = hash(instanceKey, storePath, json);
+        CompletableFuture<String> resolution = new CompletableFuture<>();
+        CompletableFuture<String> running = resolving.putIfAbsent(key, resolution);
+        if (running != null) {
+            return running.join();
+        }
+
+        try {
+            String location = resolve(key, creator);
+            resolution.complete(location);
+            return location;
+        } catch (RuntimeException | Error e) {
+            resolution.completeExceptionally(e);
+            throw e;
+        } finally {
+            resolving.remove(key, resolution);
+        }
+    }
+
+    private String resolve(String key, Supplier<String> creator) {
+        String location;
+        synchronized (locations) {
+            location = locations.getProperty(key);
+        }
+        if (location != null && exists(location)) {
+            return location;
+        }
+
+        location = creator.get();
+        synchronized (locations) {
+            locations.setProperty(key, location);
+            store();
+        }
+
+        return location;
+    }
+
+    private boolean exists(String location) {
+        URI uri = URI.create(location);
+        String path = uri.getRawPath() + (uri.getRawQuery() != null ? "?" + uri.getRawQuery() : "");
+        try {
+            return transport.send(TransportRequest.head(path)).getStatusCode() == 200;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    private void store() {
+        try {
+            if (cacheFile.getParent() != null) {
+                Files.createDirectories(cacheFile.getParent());
+            }
+            try (OutputStream out = Files.newOutputStream(cacheFile)) {
+                locations.store(out, "EDDI fixture locations by content hash");
+            }
+        } catch (IOException e) {
+            log.warn(String.format("couldn't write fixture cache %s", cacheFile), e);
+        }
+    }
+
+    private static String hash(String... parts) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            for (String part : parts) {
+                digest.update(part.getBytes(StandardCharsets.UTF_8));
+                digest.update((byte) 0);
+            }
+
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
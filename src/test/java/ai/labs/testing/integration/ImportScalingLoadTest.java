@@ -0,0 +1,86 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.load.EndpointMetrics;
+import ai.labs.testing.load.LoadConfiguration;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.LoadReport;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Properties;
+
+import static ai.labs.testing.integration.BotVariantLoadTest.parseIntegers;
+import static ai.labs.testing.integration.BulkImportLoadTest.ENDPOINT_IMPORT;
+import static ai.labs.testing.integration.BulkImportLoadTest.METRIC_IMPORT_TO_READY;
+
+/**
+ * Generates a bot zip ({@link BotZipGenerator}) for every combination of -Deddi.load.zipPackages packages and
+ * -Deddi.load.zipWords words per generated dictionary, imports each -Deddi.load.zipImports times from memory,
+ * one after the other, and deploys every imported bot. Logs a table of zip size, upload latency and time from
+ * upload start to READY per combination.
+ */
+@Slf4j
+@Test(groups = "load")
+public class ImportScalingLoadTest extends BaseCRUDOperations {
+    private static final String ROW_FORMAT = "%n%-10d %-10d %10.1f %10.2f %10.2f %12.2f %12.2f %8d";
+
+    private List<Integer> packageCounts;
+    private List<Integer> wordCounts;
+    private int dictionaries;
+    private int behaviorRules;
+    private int outputs;
+    private int importsPerZip;
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+
+        final Properties props = System.getProperties();
+        packageCounts = parseIntegers(props.getProperty("eddi.load.zipPackages", "1,5,20"));
+        wordCounts = parseIntegers(props.getProperty("eddi.load.zipWords", "100,1000,10000"));
+        dictionaries = Integer.parseInt(props.getProperty("eddi.load.zipDictionaries", "1"));
+        behaviorRules = Integer.parseInt(props.getProperty("eddi.load.zipBehaviorRules", "100"));
+        outputs = Integer.parseInt(props.getProperty("eddi.load.zipOutputs", "10"));
+        importsPerZip = Integer.parseInt(props.getProperty("eddi.load.zipImports", "5"));
+    }
+
+    public void importSizeSweep() throws Exception {
+        LoadConfiguration config = LoadConfiguration.fromSystemProperties();
+        String regularDictionary = load("botengine/regularDictionary.json");
+        String behaviorSet = load("botengine/behavior.json");
+        String outputSet = load("botengine/output.json");
+        StringBuilder sweep = new StringBuilder(String.format("%-10s %-10s %10s %10s %10s %12s %12s %8s",
+                "packages", "words", "zip KB", "import p50", "import p99", "to READY p50", "to READY p99", "failed"));
+
+        for (int packages : packageCounts) {
+            for (int words : wordCounts) {
+                BotZipGenerator generator = new BotZipGenerator(packages, dictionaries, words, behaviorRules, outputs);
+                byte[] zip = generator.generate(regularDictionary, behaviorSet, outputSet);
+
+                LoadMetrics metrics = new LoadMetrics();
+                BulkImportLoadTest.importAll(metrics, () -> new ByteArrayInputStream(zip), importsPerZip, 1);
+                metrics.stop();
+                new LoadReport(String.format("import-scaling-%dp-%dw", packages, words), metrics).
+                        print(config.getReportDirectory());
+
+                EndpointMetrics toReady = metrics.endpoint(METRIC_IMPORT_TO_READY);
+                Histogram upload = metrics.endpoint(ENDPOINT_IMPORT).getHistogram();
+                sweep.append(String.format(ROW_FORMAT, packages, words, zip.length / 1024d,
+                        upload.getValueAtPercentile(50) / 1000d,
+                        upload.getValueAtPercentile(99) / 1000d,
+                        toReady.getHistogram().getValueAtPercentile(50) / 1000d,
+                        toReady.getHistogram().getValueAtPercentile(99) / 1000d,
+                        toReady.getErrors()));
+            }
+        }
+
+        log.info(String.format("import and deployment latency (ms) by bot size, %d dictionaries of generated words, " +
+                "%d behavior rules and %d outputs per action in every package%n%s",
+                dictionaries, behaviorRules, outputs, sweep));
+    }
+}
@@ -1,25 +1,44 @@
 package ai.labs.testing.integration;
 
+import ai.labs.testing.transport.BufferPool;
 import com.fasterxml.jackson.databind.DeserializationFeature;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 
 import java.io.IOException;
 import java.io.StringWriter;
 
 /**
+ * {@link #toJson(Object)} pretty-prints, for the resources stored in EDDI. The load path uses
+ * {@link #toJsonBuffer(Object)}: no indentation, an ObjectWriter cached per class and the JSON written
+ * straight into a pooled buffer that becomes the request body.
+ *
  * @author ginccc
  */
 class JsonSerialization {
-    private static JsonSerialization instance;
     private ObjectMapper objectMapper;
-
-    static JsonSerialization getInstance() {
-        if (instance == null) {
-            instance = new JsonSerialization();
+    private final ClassValue<ObjectReader> readers = new ClassValue<ObjectReader>() {
+        @Override
+        protected ObjectReader computeValue(Class<?> type) {
+            return objectMapper.readerFor(type);
+        }
+    };
+    private final ClassValue<ObjectWriter> compactWriters = new ClassValue<ObjectWriter>() {
+        @Override
+        protected ObjectWriter computeValue(Class<?> type) {
+            return objectMapper.writerFor(type).without(SerializationFeature.INDENT_OUTPUT);
         }
+    };
 
-        return instance;
+    private static class InstanceHolder {
+        // initialized on first use, the class loader guarantees it happens only once
+        private static final JsonSerialization INSTANCE = new JsonSerialization();
+    }
+
+    static JsonSerialization getInstance() {
+        return InstanceHolder.INSTANCE;
     }
 
     private JsonSerialization() {
@@ -39,7 +58,22 @@ class JsonSerialization {
         return writer.toString();
     }
 
-    Object toObject(String json, Class type) throws IOException {
-        return objectMapper.readerFor(type).readValue(json);
+    /**
+     * @return compact JSON of obj in a buffer of {@link BufferPool#getDefault()}, to be sent with
+     * {@link ai.labs.testing.transport.TransportRequest#post(String, String, BufferPool.PooledBuffer)}
+     */
+    BufferPool.PooledBuffer toJsonBuffer(Object obj) throws IOException {
+        BufferPool.PooledBuffer buffer = BufferPool.getDefault().acquire();
+        try {
+            compactWriters.get(obj.getClass()).writeValue(buffer, obj);
+            return buffer;
+        } catch (IOException | RuntimeException e) {
+            buffer.release();
+            throw e;
+        }
+    }
+
+    <T> T toObject(String json, Class<T> type) throws IOException {
+        return readers.get(type).readValue(json);
     }
 }
@@ -0,0 +1,99 @@
+package ai.labs.testing.integration;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Extends the bot of RestBotEngineTest by facts a user can tell it. Fact i is a word of its own
+ * ({@link RegularDictionaryGenerator#word(int)}), a behavior rule turns it into the action remember_i and the
+ * property extension stores the input under the long-term property fact_i. Like the weather bot, the property
+ * extension also counts the actions of a user in the long-term property "count".
+ */
+class LongTermMemoryGenerator {
+    private static final String SCOPE_LONG_TERM = "longTerm";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int facts;
+
+    LongTermMemoryGenerator(int facts) {
+        this.facts = facts;
+    }
+
+    static String fact(int index) {
+        return RegularDictionaryGenerator.word(index);
+    }
+
+    String generateRegularDictionary(String regularDictionaryJson) throws IOException {
+        ObjectNode regularDictionary = (ObjectNode) objectMapper.readTree(regularDictionaryJson);
+        ArrayNode words = (ArrayNode) regularDictionary.get("words");
+        for (int i = 0; i < facts; i++) {
+            words.addObject().
+                    put("word", fact(i)).
+                    put("expressions", String.format("fact(%s)", fact(i))).
+                    put("frequency", 0);
+        }
+        return objectMapper.writeValueAsString(regularDictionary);
+    }
+
+    String generateBehavior(String behaviorSetJson) throws IOException {
+        ObjectNode behaviorSet = (ObjectNode) objectMapper.readTree(behaviorSetJson);
+        ArrayNode behaviorGroups = objectMapper.createArrayNode();
+        ObjectNode behaviorGroup = behaviorGroups.addObject();
+        behaviorGroup.put("name", "Facts");
+        ArrayNode behaviorRules = behaviorGroup.putArray("behaviorRules");
+        for (int i = 0; i < facts; i++) {
+            ObjectNode behaviorRule = behaviorRules.addObject();
+            behaviorRule.put("name", "Remember_" + i);
+            behaviorRule.putArray("actions").add("remember_" + i);
+            ObjectNode condition = behaviorRule.putArray("conditions").addObject();
+            condition.put("type", "inputmatcher");
+            condition.putObject("configs").
+                    put("expressions", String.format("fact(%s)", fact(i))).
+                    put("occurrence", "currentStep");
+            condition.putArray("conditions");
+        }
+
+        behaviorGroups.addAll((ArrayNode) behaviorSet.path("behaviorGroups"));
+        behaviorSet.set("behaviorGroups", behaviorGroups);
+        return objectMapper.writeValueAsString(behaviorSet);
+    }
+
+    /**
+     * @return the config of the property extension
+     */
+    @SuppressWarnings("unchecked")
+    Map<String, Object> createPropertyConfig() {
+        ObjectNode config = objectMapper.createObjectNode();
+        ArrayNode setOnActions = config.putArray("setOnActions");
+
+        ObjectNode start = setOnActions.addObject();
+        start.putArray("actions").add("CONVERSATION_START");
+        start.putArray("setProperties").addObject().
+                put("override", false).
+                put("name", "count").
+                put("valueInt", 0).
+                put("scope", SCOPE_LONG_TERM);
+
+        ObjectNode everyAction = setOnActions.addObject();
+        everyAction.putArray("actions").add("*");
+        everyAction.putArray("setProperties").addObject().
+                put("name", "count").
+                put("fromObjectPath", "properties.count+1").
+                put("scope", SCOPE_LONG_TERM);
+
+        for (int i = 0; i < facts; i++) {
+            ObjectNode remember = setOnActions.addObject();
+            remember.putArray("actions").add("remember_" + i);
+            remember.putArray("setProperties").addObject().
+                    put("name", "fact_" + i).
+                    put("fromObjectPath", "memory.current.input").
+                    put("scope", SCOPE_LONG_TERM);
+        }
+
+        return objectMapper.convertValue(config, Map.class);
+    }
+}
@@ -0,0 +1,109 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.UriUtilities;
+import ai.labs.testing.load.EndpointMetrics;
+import ai.labs.testing.load.LoadConfiguration;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.LoadReport;
+import ai.labs.testing.transport.TransportRequest;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.Properties;
+
+import static ai.labs.testing.integration.ConversationLoadTest.LOAD_USER_ID;
+
+/**
+ * Lets a single user have -Deddi.load.longTermConversations conversations, one after the other, with the bot of
+ * RestBotEngineTest extended by {@link LongTermMemoryGenerator}. In every conversation the user tells
+ * -Deddi.load.propertiesPerConversation new facts, each stored as a long-term property, so the long-term memory
+ * loaded into every new conversation keeps growing. Starting a conversation and the turns are timed per
+ * -Deddi.load.longTermInterval conversations; the table shows how both grow with the long-term memory.
+ */
+@Slf4j
+@Test(groups = "load")
+public class LongTermMemoryLoadTest extends BaseCRUDOperations {
+    private static final String ENDPOINT_CREATE = "POST bots/unrestricted/{botId} [conversations %d-%d]";
+    private static final String ENDPOINT_TURN = "POST bots/unrestricted/{botId}/{conversationId} [conversations %d-%d]";
+    private static final String END_CONVERSATION_PATH = "bots/unrestricted/%s/%s/endConversation";
+    private static final String ROW_FORMAT = "%n%-16s %16d %10.2f %10.2f %10.2f %10.2f";
+    private static final double MICROS_PER_MILLI = 1000d;
+
+    private ResourceId botResourceId;
+    private int conversations;
+    private int propertiesPerConversation;
+    private int interval;
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+
+        final Properties props = System.getProperties();
+        conversations = Integer.parseInt(props.getProperty("eddi.load.longTermConversations", "300"));
+        propertiesPerConversation = Integer.parseInt(props.getProperty("eddi.load.propertiesPerConversation", "10"));
+        interval = Integer.parseInt(props.getProperty("eddi.load.longTermInterval", "50"));
+
+        LongTermMemoryGenerator generator = new LongTermMemoryGenerator(conversations * propertiesPerConversation);
+        BotEngineSetup botEngineSetup = new BotEngineSetup();
+        botResourceId = UriUtilities.extractResourceId(botEngineSetup.setupBotFromJson(
+                generator.generateRegularDictionary(load("botengine/regularDictionary.json")),
+                generator.generateBehavior(load("botengine/behavior.json")),
+                load("botengine/output.json"),
+                generator.createPropertyConfig()));
+        deployBot(botResourceId.getId(), botResourceId.getVersion());
+    }
+
+    public void longTermMemoryGrowth() throws Exception {
+        LoadMetrics metrics = new LoadMetrics();
+        StringBuilder table = new StringBuilder(String.format("%-16s %16s %10s %10s %10s %10s",
+                "conversations", "long-term props", "start p50", "start p99", "turn p50", "turn p99"));
+        String userId = namespaced(LOAD_USER_ID);
+        String botId = botResourceId.getId();
+
+        Response lastTurn = null;
+        for (int first = 0; first < conversations; first += interval) {
+            int last = Math.min(first + interval, conversations);
+            String createEndpoint = String.format(ENDPOINT_CREATE, first + 1, last);
+            String turnEndpoint = String.format(ENDPOINT_TURN, first + 1, last);
+            for (int conversation = first; conversation < last; conversation++) {
+                ResourceId conversationId = metrics.time(createEndpoint,
+                        () -> createConversation(botId, userId), id -> id != null);
+                for (int i = 0; i < propertiesPerConversation; i++) {
+                    String fact = LongTermMemoryGenerator.fact(conversation * propertiesPerConversation + i);
+                    lastTurn = metrics.time(turnEndpoint,
+                            () -> sendUserInput(botResourceId, conversationId, fact, false, true),
+                            turn -> turn.getStatusCode() == 200);
+                }
+                transport.send(TransportRequest.post(String.format(END_CONVERSATION_PATH, botId, conversationId.getId())));
+            }
+            appendRow(table, first, last, metrics.endpoint(createEndpoint), metrics.endpoint(turnEndpoint));
+        }
+
+        metrics.stop();
+        new LoadReport("long-term-memory", metrics).print(LoadConfiguration.fromSystemProperties().getReportDirectory());
+        log.info(String.format("conversation start and turn latency by long-term memory size%n%s", table));
+
+        // "count" only adds up across conversations if the long-term memory is carried over
+        int turns = conversations * propertiesPerConversation;
+        Assert.assertNotNull(lastTurn);
+        int count = lastTurn.then().extract().path("conversationProperties.count.valueInt");
+        Assert.assertTrue(count >= turns, String.format("long-term count %d after %d turns", count, turns));
+    }
+
+    private void appendRow(StringBuilder table, int first, int last, EndpointMetrics create, EndpointMetrics turn) {
+        Histogram start = create.getHistogram();
+        Histogram turns = turn.getHistogram();
+        table.append(String.format(ROW_FORMAT, String.format("%d-%d", first + 1, last),
+                (long) first * propertiesPerConversation,
+                start.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                start.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                turns.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                turns.getValueAtPercentile(99) / MICROS_PER_MILLI));
+    }
+}
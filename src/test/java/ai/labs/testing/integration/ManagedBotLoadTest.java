@@ -0,0 +1,172 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.load.ClosedLoopDriver;
+import ai.labs.testing.load.LoadConfiguration;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.LoadReport;
+import ai.labs.testing.load.VariantComparison;
+import ai.labs.testing.model.InputData;
+import ai.labs.testing.transport.TransportRequest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static ai.labs.testing.integration.ConversationLengthLoadTest.INPUTS;
+import static ai.labs.testing.integration.ConversationLoadTest.LOAD_USER_ID;
+
+/**
+ * Drives sessions of -Deddi.load.turnsPerConversation inputs through /managedbots, spread over
+ * -Deddi.load.intents intents (bot triggers) of the bot of RestBotEngineTest and -Deddi.load.managedUsers
+ * userIds, one after the other, so that each userId comes back only after all others had their session. The
+ * first input of a userId starts its conversation implicitly, every -Deddi.load.endConversationEvery-th
+ * session ends it. Before, the same sessions are driven through bots/unrestricted, with the conversation of each
+ * userId looked up on the client; the latency of session starts and later turns of both is compared. Both send
+ * the inputs as InputData JSON, so only the endpoint differs.
+ */
+@Slf4j
+@Test(groups = "load")
+public class ManagedBotLoadTest extends BaseCRUDOperations {
+    private static final String ENDPOINT_MANAGED_START = "POST managedbots/{intent}/{userId} (session start)";
+    private static final String ENDPOINT_MANAGED_TURN = "POST managedbots/{intent}/{userId}";
+    private static final String ENDPOINT_MANAGED_END = "POST managedbots/{intent}/{userId}/endConversation";
+    private static final String ENDPOINT_DIRECT_START = "POST bots/unrestricted/{botId}[/{conversationId}] (session start)";
+    private static final String ENDPOINT_DIRECT_TURN = "POST bots/unrestricted/{botId}/{conversationId}";
+    private static final String ENDPOINT_DIRECT_END = "POST bots/unrestricted/{botId}/{conversationId}/endConversation";
+    private static final String MANAGED_PATH = "managedbots/%s/%s";
+    private static final String QUERY = "?returnDetailed=false&returnCurrentStepOnly=true";
+    private static final String JSON = ContentType.JSON.toString();
+
+    private final List<String> intents = new ArrayList<>();
+    private ResourceId botResourceId;
+    private int managedUsers;
+    private int turnsPerSession;
+    private int endConversationEvery;
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+
+        final Properties props = System.getProperties();
+        int intentCount = Integer.parseInt(props.getProperty("eddi.load.intents", "20"));
+        managedUsers = Integer.parseInt(props.getProperty("eddi.load.managedUsers", "200000"));
+        turnsPerSession = Integer.parseInt(props.getProperty("eddi.load.turnsPerConversation", "3"));
+        endConversationEvery = Integer.parseInt(props.getProperty("eddi.load.endConversationEvery", "3"));
+
+        botResourceId = deployBot("botengine/regularDictionary.json",
+                "botengine/behavior.json",
+                "botengine/output.json");
+        String botDeployment = load("useCases/botdeployment.json");
+        for (int i = 0; i < intentCount; i++) {
+            String intent = namespaced("intent");
+            transport.send(TransportRequest.put("bottriggerstore/bottriggers/" + intent, JSON,
+                    String.format(botDeployment, intent, botResourceId.getId()))).then().statusCode(200);
+            intents.add(intent);
+        }
+    }
+
+    public void managedBotThroughput() throws Exception {
+        LoadConfiguration config = LoadConfiguration.fromSystemProperties();
+        String userPrefix = namespaced(LOAD_USER_ID);
+
+        LoadMetrics direct = new LoadMetrics();
+        Map<String, ResourceId> conversations = new ConcurrentHashMap<>();
+        AtomicLong directSessions = new AtomicLong();
+        new ClosedLoopDriver(config).run(direct, (userIndex, iteration) -> {
+            long session = directSessions.getAndIncrement();
+            String userId = userPrefix + "-direct-" + session % managedUsers;
+            runDirectSession(direct, conversations, userId, session);
+        });
+        new LoadReport("managed-bots-direct", direct).print(config.getReportDirectory());
+
+        LoadMetrics managed = new LoadMetrics();
+        AtomicLong managedSessions = new AtomicLong();
+        new ClosedLoopDriver(config).run(managed, (userIndex, iteration) -> {
+            long session = managedSessions.getAndIncrement();
+            String userId = userPrefix + "-managed-" + session % managedUsers;
+            runManagedSession(managed, intents.get((int) (session % intents.size())), userId, session);
+        });
+        new LoadReport("managed-bots", managed).print(config.getReportDirectory());
+
+        VariantComparison comparison = new VariantComparison(String.format(
+                "managedbots compared to bots/unrestricted (%d sessions of %d userIds, %d intents)",
+                managedSessions.get(), Math.min(managedSessions.get(), managedUsers), intents.size()));
+        comparison.add("bots/unrestricted, session start", direct.endpoint(ENDPOINT_DIRECT_START));
+        comparison.add("managedbots, session start", managed.endpoint(ENDPOINT_MANAGED_START),
+                "bots/unrestricted, session start");
+        comparison.add("bots/unrestricted, turn", direct.endpoint(ENDPOINT_DIRECT_TURN), "bots/unrestricted, turn");
+        comparison.add("managedbots, turn", managed.endpoint(ENDPOINT_MANAGED_TURN), "bots/unrestricted, turn");
+        log.info(comparison.format());
+    }
+
+    private void runManagedSession(LoadMetrics metrics, String intent, String userId, long session)
+            throws Exception {
+        String path = String.format(MANAGED_PATH, intent, userId);
+        for (int i = 0; i < turnsPerSession; i++) {
+            InputData inputData = new InputData(INPUTS.get(i % INPUTS.size()), Collections.emptyMap());
+            metrics.time(i == 0 ? ENDPOINT_MANAGED_START : ENDPOINT_MANAGED_TURN,
+                    () -> transport.send(TransportRequest.post(path + QUERY, JSON,
+                            JsonSerialization.getInstance().toJsonBuffer(inputData))),
+                    response -> response.getStatusCode() == 200);
+        }
+
+        if (session % endConversationEvery == 0) {
+            metrics.time(ENDPOINT_MANAGED_END, () -> transport.send(TransportRequest.post(path + "/endConversation")),
+                    response -> response.getStatusCode() == 200);
+        }
+    }
+
+    /**
+     * The conversation of a userId is created on its first session and kept until it is ended, as a
+     * channel calling bots/unrestricted would have to.
+     */
+    private void runDirectSession(LoadMetrics metrics, Map<String, ResourceId> conversations, String userId,
+                                  long session) throws Exception {
+        ResourceId conversationId = null;
+        for (int i = 0; i < turnsPerSession; i++) {
+            String input = INPUTS.get(i % INPUTS.size());
+            if (i == 0) {
+                conversationId = metrics.time(ENDPOINT_DIRECT_START, () -> {
+                    // a userId has one session at a time; no computeIfAbsent, it would pin a virtual thread
+                    ResourceId id = conversations.get(userId);
+                    if (id == null) {
+                        id = createConversation(botResourceId.getId(), userId);
+                        conversations.put(userId, id);
+                    }
+                    sendTurn(id, input);
+                    return id;
+                });
+            } else {
+                ResourceId id = conversationId;
+                metrics.time(ENDPOINT_DIRECT_TURN, () -> sendTurn(id, input));
+            }
+        }
+
+        if (session % endConversationEvery == 0) {
+            ResourceId id = conversations.remove(userId);
+            metrics.time(ENDPOINT_DIRECT_END, () -> transport.send(TransportRequest.post(String.format(
+                    "bots/unrestricted/%s/%s/endConversation", botResourceId.getId(), id.getId()))),
+                    response -> response.getStatusCode() == 200);
+        }
+    }
+
+    private Response sendTurn(ResourceId conversationId, String input) throws IOException {
+        InputData inputData = new InputData(input, Collections.emptyMap());
+        Response response = sendUserInput(botResourceId, conversationId, inputData, false, true);
+        if (response.getStatusCode() != 200) {
+            throw new IllegalStateException("Unexpected response status " + response.getStatusCode());
+        }
+        return response;
+    }
+}
@@ -0,0 +1,93 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.UriUtilities;
+import ai.labs.testing.model.ConversationScript;
+import ai.labs.testing.model.InputData;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Measures what rendering the output costs per turn. For every size of -Deddi.load.outputSizes the output set
+ * of the bot of RestBotEngineTest is enlarged by that many outputs (each with -Deddi.load.outputAlternatives
+ * alternatives) and quick replies per action, every text with -Deddi.load.templatePlaceholders placeholders
+ * ({@link OutputSetGenerator}). Each output set is deployed with and without the templating extension and
+ * played with a userInfo context of each size of -Deddi.load.contextFields. The latency with templating is
+ * logged next to its difference to the same bot and context without templating, which is the cost of going
+ * from preTemplated to postTemplated.
+ */
+@Test(groups = "load")
+public class OutputLoadTest extends BotVariantLoadTest {
+    private final Map<String, BotVariant> variants = new LinkedHashMap<>();
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+
+        final Properties props = System.getProperties();
+        List<Integer> outputSizes = parseIntegers(props.getProperty("eddi.load.outputSizes", "1,10,50"));
+        int alternatives = Integer.parseInt(props.getProperty("eddi.load.outputAlternatives", "3"));
+        int placeholders = Integer.parseInt(props.getProperty("eddi.load.templatePlaceholders", "5"));
+        List<Integer> contextSizes = parseIntegers(props.getProperty("eddi.load.contextFields", "10,1000"));
+
+        loadScripts("load/botengine.json");
+        String regularDictionary = load("botengine/regularDictionary.json");
+        String behavior = load("botengine/behavior.json");
+        String output = load("botengine/output.json");
+
+        List<ResourceId> bots = new ArrayList<>();
+        for (int outputSize : outputSizes) {
+            OutputSetGenerator generator = new OutputSetGenerator(outputSize, alternatives, outputSize, placeholders);
+            String generatedOutput = generator.generate(output);
+            ResourceId withoutTemplating = setupBot(regularDictionary, behavior, generatedOutput, false);
+            ResourceId withTemplating = setupBot(regularDictionary, behavior, generatedOutput, true);
+            bots.add(withoutTemplating);
+            bots.add(withTemplating);
+
+            for (int contextSize : contextSizes) {
+                List<ConversationScript> scriptsWithContext = withUserInfo(contextSize);
+                String name = String.format("%s, %d context fields", generator.getName(), contextSize);
+                String withoutTemplatingName = name + ", no templating";
+                variants.put(withoutTemplatingName, new BotVariant(withoutTemplating, scriptsWithContext));
+                variants.put(name + ", templating", new BotVariant(withTemplating, scriptsWithContext, withoutTemplatingName));
+            }
+        }
+        deployBots(bots);
+    }
+
+    public void templatingCost() throws Exception {
+        compareBotVariants("per-turn latency by output set and context size, with templating compared to without",
+                "output-templating", variants);
+    }
+
+    private List<ConversationScript> withUserInfo(int contextFields) {
+        InputData.Context userInfo = new InputData.Context(InputData.Context.ContextType.object,
+                OutputSetGenerator.createUserInfo(contextFields));
+
+        List<ConversationScript> scriptsWithContext = new ArrayList<>();
+        for (ConversationScript script : scripts) {
+            ConversationScript scriptWithContext = new ConversationScript();
+            scriptWithContext.setName(script.getName());
+            scriptWithContext.setInputs(script.getInputs());
+            scriptWithContext.setReturnDetailed(script.isReturnDetailed());
+            scriptWithContext.setReturnCurrentStepOnly(script.isReturnCurrentStepOnly());
+            scriptWithContext.setContext(Collections.singletonMap("userInfo", userInfo));
+            scriptsWithContext.add(scriptWithContext);
+        }
+        return scriptsWithContext;
+    }
+
+    private ResourceId setupBot(String regularDictionary, String behavior, String output, boolean templating)
+            throws IOException, InterruptedException {
+        BotEngineSetup botEngineSetup = new BotEngineSetup(FixtureCache.isEnabled(), ParserExtensionOptions.defaults(), templating);
+        return UriUtilities.extractResourceId(botEngineSetup.setupBotFromJson(regularDictionary, behavior, output));
+    }
+}
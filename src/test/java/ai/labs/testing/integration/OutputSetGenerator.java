@@ -0,0 +1,95 @@
+package ai.labs.testing.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Enlarges every action of an output set such as tests/botengine/output.json: after its own outputs and quick
+ * replies come generated ones, each text with a number of template placeholders into the userInfo context
+ * ({@link #createUserInfo(int)}), e.g. [[${userInfo.fields.f3}]]. The placeholders only reference the first
+ * fields, so the same output set renders against a small and a large context.
+ */
+class OutputSetGenerator {
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final int outputsPerAction;
+    private final int alternatives;
+    private final int quickReplies;
+    private final int placeholders;
+
+    OutputSetGenerator(int outputsPerAction, int alternatives, int quickReplies, int placeholders) {
+        this.outputsPerAction = outputsPerAction;
+        this.alternatives = alternatives;
+        this.quickReplies = quickReplies;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * @return e.g. "10 outputs x 3, 10 quick replies, 5 placeholders"
+     */
+    String getName() {
+        return String.format("%d outputs x %d, %d quick replies, %d placeholders",
+                outputsPerAction, alternatives, quickReplies, placeholders);
+    }
+
+    String generate(String outputSetJson) throws IOException {
+        ObjectNode outputSet = (ObjectNode) objectMapper.readTree(outputSetJson);
+        for (JsonNode entry : outputSet.path("outputSet")) {
+            ObjectNode output = (ObjectNode) entry;
+            String action = output.path("action").asText();
+
+            ArrayNode outputs = getOrCreateArray(output, "outputs");
+            for (int i = 0; i < outputsPerAction; i++) {
+                ObjectNode generated = outputs.addObject();
+                generated.put("type", "text");
+                ArrayNode valueAlternatives = generated.putArray("valueAlternatives");
+                for (int alternative = 0; alternative < alternatives; alternative++) {
+                    valueAlternatives.addObject().
+                            put("type", "text").
+                            put("text", createTemplate(String.format("%s output %d.%d", action, i, alternative)));
+                }
+            }
+
+            ArrayNode generatedQuickReplies = getOrCreateArray(output, "quickReplies");
+            for (int i = 0; i < quickReplies; i++) {
+                generatedQuickReplies.addObject().
+                        put("value", createTemplate(String.format("%s reply %d", action, i))).
+                        put("expressions", String.format("quickReply(generated_%d)", i));
+            }
+        }
+
+        return objectMapper.writeValueAsString(outputSet);
+    }
+
+    private static ArrayNode getOrCreateArray(ObjectNode node, String field) {
+        return node.path(field).isArray() ? (ArrayNode) node.get(field) : node.putArray(field);
+    }
+
+    private String createTemplate(String text) {
+        StringBuilder template = new StringBuilder(text).append(" for [[${userInfo.username}]]:");
+        for (int i = 0; i < placeholders; i++) {
+            template.append(" [[${userInfo.fields.f").append(i).append("}]]");
+        }
+        return template.toString();
+    }
+
+    /**
+     * @return the value of a userInfo context with a username and the given number of fields f0, f1, ...
+     */
+    static Map<String, Object> createUserInfo(int fields) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (int i = 0; i < fields; i++) {
+            values.put("f" + i, "value of field " + i);
+        }
+
+        Map<String, Object> userInfo = new LinkedHashMap<>();
+        userInfo.put("username", "John");
+        userInfo.put("fields", values);
+        return userInfo;
+    }
+}
@@ -0,0 +1,47 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.UriUtilities;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Sets up the bot of RestBotEngineTest once per {@link ParserExtensionOptions#ablationVariants() parser variant}
+ * (levenshtein distance 0 to 3, mergedTerms and each built-in dictionary left out), deploys them all and plays
+ * the scripts of -Deddi.load.ablationScripts against one variant after the other. Logs the per-turn latency
+ * of every variant and its difference to the default parser configuration, which runs first and once more
+ * at the end.
+ */
+@Test(groups = "load")
+public class ParserAblationLoadTest extends BotVariantLoadTest {
+    private final Map<ParserExtensionOptions, ResourceId> bots = new LinkedHashMap<>();
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+
+        String scriptsPath = System.getProperty("eddi.load.ablationScripts", "load/parserAblation.json");
+        loadScripts(scriptsPath);
+
+        for (ParserExtensionOptions options : ParserExtensionOptions.ablationVariants()) {
+            BotEngineSetup botEngineSetup = new BotEngineSetup(FixtureCache.isEnabled(), options);
+            bots.put(options, UriUtilities.extractResourceId(botEngineSetup.setupBot(
+                    "botengine/regularDictionary.json", "botengine/behavior.json", "botengine/output.json")));
+        }
+        deployBots(new ArrayList<>(bots.values()));
+    }
+
+    public void correctionAblation() throws Exception {
+        // the defaults are measured again at the end, any drift over the run shows as their difference
+        Map<String, ResourceId> runs = new LinkedHashMap<>();
+        bots.forEach((options, bot) -> runs.put(options.getName(), bot));
+        runs.put(ParserExtensionOptions.defaults().getName() + " (again)", bots.values().iterator().next());
+
+        compareVariants("per-turn latency by parser variant, compared to the defaults", "parser-ablation", runs);
+    }
+}
@@ -0,0 +1,88 @@
+package ai.labs.testing.integration;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Streams the lines of a corpus file (one parser input per line) without loading it, so it may have millions
+ * of lines. Starts over at the end of the file, blank lines are skipped. Either a file path or a classpath
+ * resource below tests/.
+ */
+class ParserCorpus implements Closeable {
+    private final String location;
+    private BufferedReader reader;
+    private long linesRead;
+    private long linesReadBeforePass;
+    private int passes;
+
+    ParserCorpus(String location) throws IOException {
+        this.location = location;
+        this.reader = open();
+    }
+
+    /**
+     * @return the next non-blank line, thread-safe
+     */
+    synchronized String nextLine() {
+        try {
+            while (true) {
+                String line = reader.readLine();
+                if (line == null) {
+                    if (linesRead == linesReadBeforePass) {
+                        throw new IllegalStateException("corpus without inputs: " + location);
+                    }
+                    reader.close();
+                    reader = open();
+                    passes++;
+                    linesReadBeforePass = linesRead;
+                    continue;
+                }
+
+                line = line.trim();
+                if (!line.isEmpty()) {
+                    linesRead++;
+                    return line;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    synchronized long getLinesRead() {
+        return linesRead;
+    }
+
+    /**
+     * @return how often the corpus has been read to its end
+     */
+    synchronized int getPasses() {
+        return passes;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        reader.close();
+    }
+
+    private BufferedReader open() throws IOException {
+        Path path = Paths.get(location);
+        InputStream in = Files.exists(path) ?
+                Files.newInputStream(path) :
+                ClassLoader.getSystemResourceAsStream("tests/" + location);
+        if (in == null) {
+            throw new FileNotFoundException(String.format("FileNotFound: %s", location));
+        }
+
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 64 * 1024);
+    }
+}
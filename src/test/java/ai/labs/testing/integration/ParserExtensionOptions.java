@@ -0,0 +1,104 @@
+package ai.labs.testing.integration;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Which built-in dictionaries and corrections {@link BotEngineSetup} puts into the parser extension of a
+ * package. {@link #defaults()} is what the tests have always used: all built-in dictionaries, levenshtein
+ * with distance 2 and mergedTerms. Instances are immutable, the with-methods return modified copies.
+ */
+@Getter
+class ParserExtensionOptions {
+    static final List<String> BUILT_IN_DICTIONARIES = Collections.unmodifiableList(Arrays.asList(
+            "integer", "decimal", "punctuation", "email", "time", "ordinalNumber"));
+    private static final int DEFAULT_LEVENSHTEIN_DISTANCE = 2;
+
+    private final Set<String> dictionaries;
+    /**
+     * 0 leaves the levenshtein correction out
+     */
+    private final int levenshteinDistance;
+    private final boolean mergedTerms;
+
+    private ParserExtensionOptions(Set<String> dictionaries, int levenshteinDistance, boolean mergedTerms) {
+        this.dictionaries = Collections.unmodifiableSet(dictionaries);
+        this.levenshteinDistance = levenshteinDistance;
+        this.mergedTerms = mergedTerms;
+    }
+
+    static ParserExtensionOptions defaults() {
+        return new ParserExtensionOptions(new LinkedHashSet<>(BUILT_IN_DICTIONARIES), DEFAULT_LEVENSHTEIN_DISTANCE, true);
+    }
+
+    ParserExtensionOptions withoutDictionary(String dictionary) {
+        Set<String> remaining = new LinkedHashSet<>(dictionaries);
+        remaining.remove(dictionary);
+        return new ParserExtensionOptions(remaining, levenshteinDistance, mergedTerms);
+    }
+
+    ParserExtensionOptions withoutBuiltInDictionaries() {
+        return new ParserExtensionOptions(new LinkedHashSet<>(), levenshteinDistance, mergedTerms);
+    }
+
+    ParserExtensionOptions withLevenshteinDistance(int distance) {
+        return new ParserExtensionOptions(new LinkedHashSet<>(dictionaries), distance, mergedTerms);
+    }
+
+    ParserExtensionOptions withMergedTerms(boolean mergedTerms) {
+        return new ParserExtensionOptions(new LinkedHashSet<>(dictionaries), levenshteinDistance, mergedTerms);
+    }
+
+    /**
+     * @return the defaults first, then one variant per change against the defaults: levenshtein distance
+     * 0 to 3, without mergedTerms, without each built-in dictionary, without any of them and without
+     * any built-in dictionary or correction at all
+     */
+    static List<ParserExtensionOptions> ablationVariants() {
+        ParserExtensionOptions defaults = defaults();
+        List<ParserExtensionOptions> variants = new ArrayList<>();
+        variants.add(defaults);
+        for (int distance = 0; distance <= 3; distance++) {
+            if (distance != DEFAULT_LEVENSHTEIN_DISTANCE) {
+                variants.add(defaults.withLevenshteinDistance(distance));
+            }
+        }
+        variants.add(defaults.withMergedTerms(false));
+        for (String dictionary : BUILT_IN_DICTIONARIES) {
+            variants.add(defaults.withoutDictionary(dictionary));
+        }
+        variants.add(defaults.withoutBuiltInDictionaries());
+        variants.add(defaults.withoutBuiltInDictionaries().withLevenshteinDistance(0).withMergedTerms(false));
+        return variants;
+    }
+
+    /**
+     * @return a short description of how this differs from the defaults, e.g. "levenshtein=3,-email"
+     */
+    String getName() {
+        List<String> differences = new ArrayList<>();
+        if (levenshteinDistance != DEFAULT_LEVENSHTEIN_DISTANCE) {
+            differences.add(levenshteinDistance == 0 ? "-levenshtein" : "levenshtein=" + levenshteinDistance);
+        }
+        if (!mergedTerms) {
+            differences.add("-mergedTerms");
+        }
+        if (dictionaries.isEmpty()) {
+            differences.add("-builtInDictionaries");
+        } else {
+            for (String dictionary : BUILT_IN_DICTIONARIES) {
+                if (!dictionaries.contains(dictionary)) {
+                    differences.add("-" + dictionary);
+                }
+            }
+        }
+
+        return differences.isEmpty() ? "defaults" : String.join(",", differences);
+    }
+}
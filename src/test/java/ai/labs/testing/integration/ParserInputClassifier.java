@@ -0,0 +1,78 @@
+package ai.labs.testing.integration;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Tells which part of a regular dictionary a parser input is expected to hit, so parser latency can be
+ * reported per kind of match: the whole input is a phrase, every token is a word, a token matches one of
+ * the regular expressions, or neither (left to the corrections).
+ */
+class ParserInputClassifier {
+    enum InputClass {
+        PHRASE,
+        WORD,
+        REGEX,
+        CORRECTED,
+        /**
+         * the parser returned no expressions at all
+         */
+        UNMATCHED;
+
+        String getLabel() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    private final Set<String> words = new HashSet<>();
+    private final Set<String> phrases = new HashSet<>();
+    private final List<Pattern> regExs = new ArrayList<>();
+
+    ParserInputClassifier(String regularDictionaryJson) throws IOException {
+        JsonNode dictionary = new ObjectMapper().readTree(regularDictionaryJson);
+        dictionary.path("words").forEach(word -> words.add(normalize(word.path("word").asText())));
+        dictionary.path("phrases").forEach(phrase -> phrases.add(normalize(phrase.path("phrase").asText())));
+        dictionary.path("regExs").forEach(regEx -> regExs.add(Pattern.compile(regEx.path("regEx").asText())));
+    }
+
+    InputClass classify(String input) {
+        String normalized = normalize(input);
+        if (phrases.contains(normalized)) {
+            return InputClass.PHRASE;
+        }
+
+        String[] tokens = normalized.split("\\s+");
+        boolean allWords = true;
+        for (String token : tokens) {
+            if (!words.contains(token)) {
+                allWords = false;
+                break;
+            }
+        }
+        if (allWords) {
+            return InputClass.WORD;
+        }
+
+        for (String token : input.trim().split("\\s+")) {
+            for (Pattern regEx : regExs) {
+                if (regEx.matcher(token).matches()) {
+                    return InputClass.REGEX;
+                }
+            }
+        }
+
+        return InputClass.CORRECTED;
+    }
+
+    private static String normalize(String text) {
+        return text.trim().toLowerCase(Locale.ROOT);
+    }
+}
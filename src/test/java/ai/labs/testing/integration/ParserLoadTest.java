@@ -0,0 +1,174 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.UriUtilities;
+import ai.labs.testing.load.ClosedLoopDriver;
+import ai.labs.testing.load.LoadConfiguration;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.LoadReport;
+import ai.labs.testing.transport.TransportRequest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the semantic parser alone (POST /parser/{id}), apart from the rest of the conversation lifecycle.
+ * The inputs are streamed from a corpus (-Deddi.load.corpus, a file or a resource below tests/, one input
+ * per line) at the concurrency of -Deddi.load.users, against a parser with the regular dictionary of
+ * -Deddi.load.dictionary. Throughput and latency are reported per {@link ParserInputClassifier.InputClass}.
+ */
+@Slf4j
+@Test(groups = "load")
+public class ParserLoadTest extends BaseCRUDOperations {
+    static final String ENDPOINT_PARSE = "POST parser/{id} [%s]";
+    private static final String ENDPOINT_PARSE_SWEEP = "POST parser/{id} [%d words]";
+    private static final int SWEEP_INPUTS = 10_000;
+    private static final String REGULAR_DICTIONARY_PATH = "/regulardictionarystore/regulardictionaries";
+    private static final String PARSER_PATH = "/parserstore/parsers";
+    private static final String JSON = ContentType.JSON.toString();
+
+    private String corpusLocation;
+    private String regularDictionary;
+    private String parserConfiguration;
+    private List<Integer> dictionarySizes;
+    private int dictionaryRegExs;
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+
+        final Properties props = System.getProperties();
+        corpusLocation = props.getProperty("eddi.load.corpus", "load/parserCorpus.txt");
+        regularDictionary = load(props.getProperty("eddi.load.dictionary", "parser/simpleRegularDictionary.json"));
+        parserConfiguration = load("parser/parserConfiguration.json");
+        dictionarySizes = new ArrayList<>();
+        for (String size : props.getProperty("eddi.load.dictionarySizes", "1000,10000,100000").split(",")) {
+            dictionarySizes.add(Integer.parseInt(size.trim()));
+        }
+        dictionaryRegExs = Integer.parseInt(props.getProperty("eddi.load.dictionaryRegExs", "20"));
+    }
+
+    public void corpusThroughput() throws Exception {
+        LoadConfiguration config = LoadConfiguration.fromSystemProperties();
+        ResourceId parserId = createParser(regularDictionary);
+        ParserInputClassifier classifier = new ParserInputClassifier(regularDictionary);
+
+        LoadMetrics metrics = new LoadMetrics();
+        try (ParserCorpus corpus = new ParserCorpus(corpusLocation)) {
+            new ClosedLoopDriver(config).run(metrics,
+                    (userIndex, iteration) -> parse(metrics, classifier, parserId, corpus.nextLine()));
+            log.info(String.format("%d corpus lines parsed, corpus read %d times", corpus.getLinesRead(), corpus.getPasses()));
+        }
+
+        new LoadReport("parser-corpus", metrics).print(config.getReportDirectory());
+    }
+
+    /**
+     * Parses the same mix of inputs against generated dictionaries of -Deddi.load.dictionarySizes words
+     * (plus a tenth as many phrases and -Deddi.load.dictionaryRegExs regular expressions), one size after
+     * the other, and logs per size: the dictionary's JSON size, how long its upload and the first parse took
+     * (the first parse builds the dictionary in EDDI) and the steady-state latency.
+     */
+    public void dictionarySizeSweep() throws Exception {
+        LoadConfiguration config = LoadConfiguration.fromSystemProperties();
+        StringBuilder sweep = new StringBuilder(String.format("%10s %10s %10s %14s %10s %10s %10s",
+                "words", "json MB", "upload ms", "1st parse ms", "req/s", "p50 ms", "p99 ms"));
+
+        for (int size : dictionarySizes) {
+            RegularDictionaryGenerator generator = new RegularDictionaryGenerator(size, size / 10, dictionaryRegExs);
+            byte[] dictionary = generator.generate();
+
+            long uploadStart = System.nanoTime();
+            ResourceId dictionaryId = createResource(dictionary, REGULAR_DICTIONARY_PATH);
+            long uploadMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - uploadStart);
+            ResourceId parserId = createParser(dictionaryId);
+
+            List<String> inputs = generator.sampleInputs(SWEEP_INPUTS, size);
+            String endpoint = String.format(ENDPOINT_PARSE_SWEEP, size);
+            long firstParseStart = System.nanoTime();
+            parse(parserId, inputs.get(0)).then().statusCode(200);
+            long firstParseMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - firstParseStart);
+
+            LoadMetrics metrics = new LoadMetrics();
+            new ClosedLoopDriver(config).run(metrics, (userIndex, iteration) -> {
+                String input = inputs.get((int) ((userIndex * 7919L + iteration) % inputs.size()));
+                metrics.time(endpoint, () -> parse(parserId, input), response -> response.getStatusCode() == 200);
+            });
+            new LoadReport("parser-dictionary-" + size, metrics).print(config.getReportDirectory());
+
+            Histogram histogram = metrics.endpoint(endpoint).getHistogram();
+            sweep.append(String.format("%n%10d %10.1f %10d %14d %10.1f %10.2f %10.2f",
+                    size, dictionary.length / (1024d * 1024d), uploadMillis, firstParseMillis,
+                    histogram.getTotalCount() / metrics.getElapsedSeconds(),
+                    histogram.getValueAtPercentile(50) / 1000d,
+                    histogram.getValueAtPercentile(99) / 1000d));
+        }
+
+        log.info(String.format("parser latency by dictionary size%n%s", sweep));
+    }
+
+    /**
+     * @return the location of a new parser with the built-in dictionaries, the given regular dictionary and
+     * the corrections of parser/parserConfiguration.json
+     */
+    ResourceId createParser(String regularDictionaryJson) {
+        return createParser(createResource(regularDictionaryJson, REGULAR_DICTIONARY_PATH));
+    }
+
+    private ResourceId createParser(ResourceId dictionaryId) {
+        String parserConfig = parserConfiguration.
+                replace("<UNIQUE_ID>", dictionaryId.getId()).
+                replace("<VERSION>", dictionaryId.getVersion().toString());
+        return createResource(parserConfig, PARSER_PATH);
+    }
+
+    /**
+     * Times one parse and records it under the class of its input, or as unmatched if no expressions came back.
+     */
+    void parse(LoadMetrics metrics, ParserInputClassifier classifier, ResourceId parserId, String input) {
+        ParserInputClassifier.InputClass inputClass = classifier.classify(input);
+
+        long startTime = System.nanoTime();
+        Response response = null;
+        try {
+            response = parse(parserId, input);
+        } finally {
+            long endTime = System.nanoTime();
+            boolean success = response != null && response.getStatusCode() == 200;
+            if (success && !response.getBody().asString().contains("\"expressions\"")) {
+                inputClass = ParserInputClassifier.InputClass.UNMATCHED;
+            }
+            metrics.endpoint(String.format(ENDPOINT_PARSE, inputClass.getLabel())).record(startTime, endTime, success);
+        }
+    }
+
+    private Response parse(ResourceId parserId, String input) {
+        return transport.send(TransportRequest.post(
+                "parser/" + parserId.getId() + VERSION_STRING + parserId.getVersion(), JSON, input));
+    }
+
+    private ResourceId createResource(String json, String path) {
+        return toResourceId(create(json, path), path);
+    }
+
+    private ResourceId createResource(byte[] json, String path) {
+        return toResourceId(transport.send(new TransportRequest("POST", path, JSON, null, json)), path);
+    }
+
+    private static ResourceId toResourceId(Response response, String path) {
+        if (response.getStatusCode() != 201) {
+            throw new IllegalStateException(String.format("Couldn't create resource in %s: %d", path, response.getStatusCode()));
+        }
+
+        return UriUtilities.extractResourceId(response.getHeader("location"));
+    }
+}
@@ -0,0 +1,131 @@
+package ai.labs.testing.integration;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds regular dictionaries of any size in the shape of tests/parser/simpleRegularDictionary.json.
+ * Words are made of syllables, so they look like words to the levenshtein correction, and are unique;
+ * phrases combine two words that aren't single words of the dictionary. The JSON is written by a streaming
+ * generator into a byte array, so a dictionary of a million words is only held as its bytes, never as objects.
+ */
+class RegularDictionaryGenerator {
+    private static final String CONSONANTS = "bcdfghjklmnprstvwz";
+    private static final String VOWELS = "aeiou";
+    private static final int SYLLABLES = CONSONANTS.length() * VOWELS.length();
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    private final int words;
+    private final int phrases;
+    private final int regExs;
+
+    RegularDictionaryGenerator(int words, int phrases, int regExs) {
+        this.words = words;
+        this.phrases = phrases;
+        this.regExs = regExs;
+    }
+
+    int getWords() {
+        return words;
+    }
+
+    byte[] generate() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(words * 64);
+        try (JsonGenerator json = jsonFactory.createGenerator(out, JsonEncoding.UTF8)) {
+            json.writeStartObject();
+            json.writeStringField("language", "en");
+
+            json.writeArrayFieldStart("words");
+            for (int i = 0; i < words; i++) {
+                String word = word(i);
+                json.writeStartObject();
+                json.writeStringField("word", word);
+                json.writeStringField("expressions", "entity(" + word + ")");
+                json.writeNumberField("frequency", 0);
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("regExs");
+            for (int i = 0; i < regExs; i++) {
+                json.writeStartObject();
+                json.writeStringField("regEx", regExPrefix(i) + "\\d\\d\\d\\d\\d\\d");
+                json.writeStringField("expressions", "rallyid(r" + i + ")");
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+
+            json.writeArrayFieldStart("phrases");
+            for (int i = 0; i < phrases; i++) {
+                String phrase = phrase(i);
+                json.writeStartObject();
+                json.writeStringField("phrase", phrase);
+                json.writeStringField("expressions", "phrase(" + phrase.replace(' ', '_') + ")");
+                json.writeEndObject();
+            }
+            json.writeEndArray();
+
+            json.writeEndObject();
+        }
+
+        return out.toByteArray();
+    }
+
+    /**
+     * @return inputs hitting the dictionary like a real corpus would: mostly known words, then phrases,
+     * regular expression matches, misspelled words (one letter dropped) and unknown words
+     */
+    List<String> sampleInputs(int count, long seed) {
+        Random random = new Random(seed);
+        List<String> inputs = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int kind = random.nextInt(10);
+            if (kind < 5 || (kind < 7 && phrases == 0) || (kind == 7 && regExs == 0)) {
+                inputs.add(word(random.nextInt(words)));
+            } else if (kind < 7) {
+                inputs.add(phrase(random.nextInt(phrases)));
+            } else if (kind == 7) {
+                inputs.add(regExPrefix(random.nextInt(regExs)) +
+                        String.format("%06d", random.nextInt(1_000_000)));
+            } else if (kind == 8) {
+                String word = word(random.nextInt(words));
+                int dropped = random.nextInt(word.length());
+                inputs.add(word.substring(0, dropped) + word.substring(dropped + 1));
+            } else {
+                inputs.add("xq" + word(words + 2 * phrases + random.nextInt(words)) + "yq");
+            }
+        }
+
+        return inputs;
+    }
+
+    private String phrase(int index) {
+        return word(words + 2 * index) + " " + word(words + 2 * index + 1);
+    }
+
+    private static String regExPrefix(int index) {
+        return "R" + index + "X";
+    }
+
+    /**
+     * @return the index written with syllables as digits, at least two of them
+     */
+    static String word(int index) {
+        StringBuilder word = new StringBuilder();
+        long value = (long) index + SYLLABLES;
+        while (value > 0) {
+            int syllable = (int) (value % SYLLABLES);
+            word.append(CONSONANTS.charAt(syllable / VOWELS.length())).append(VOWELS.charAt(syllable % VOWELS.length()));
+            value /= SYLLABLES;
+        }
+
+        return word.toString();
+    }
+}
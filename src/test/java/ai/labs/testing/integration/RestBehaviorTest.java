@@ -1,5 +1,6 @@
 package ai.labs.testing.integration;
 
+import ai.labs.testing.ResourceId;
 import lombok.extern.slf4j.Slf4j;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
@@ -14,6 +15,8 @@ public class RestBehaviorTest extends BaseCRUDOperations {
     private static final String ROOT_PATH = "/behaviorstore/behaviorsets/";
     private static final String RESOURCE_URI = "eddi://ai.labs.behavior" + ROOT_PATH;
 
+    private ResourceId resourceId;
+
     private String TEST_JSON;
     private String TEST_JSON2;
 
@@ -32,24 +35,25 @@ public class RestBehaviorTest extends BaseCRUDOperations {
 
     @Test()
     public void createBehavior() {
-        assertCreate(TEST_JSON, ROOT_PATH, RESOURCE_URI);
+        resourceId = assertCreate(TEST_JSON, ROOT_PATH, RESOURCE_URI);
     }
 
     @Test(dependsOnMethods = "createBehavior")
     public void readBehavior() {
-        assertRead(ROOT_PATH).
+        assertRead(ROOT_PATH, resourceId).
                 body("behaviorGroups[0].name", equalTo("Smalltalk")).
                 body("behaviorGroups[0].behaviorRules[0].conditions[0].type", equalTo("negation"));
     }
 
     @Test(dependsOnMethods = "readBehavior")
     public void updateBehavior() {
-        assertUpdate(TEST_JSON2, ROOT_PATH, RESOURCE_URI).
+        resourceId = assertUpdate(TEST_JSON2, ROOT_PATH, RESOURCE_URI, resourceId);
+        assertRead(ROOT_PATH, resourceId).
                 body("behaviorGroups[0].behaviorRules[0].name", equalTo("Welcome_changed"));
     }
 
     @Test(dependsOnMethods = "updateBehavior")
     public void deleteBehavior() {
-        assertDelete(ROOT_PATH);
+        assertDelete(ROOT_PATH, resourceId);
     }
 }
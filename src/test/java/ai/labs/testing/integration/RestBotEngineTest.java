@@ -1,22 +1,19 @@
 package ai.labs.testing.integration;
 
 import ai.labs.testing.ResourceId;
-import ai.labs.testing.UriUtilities;
 import ai.labs.testing.model.InputData;
-import io.restassured.http.ContentType;
+import ai.labs.testing.transport.TransportRequest;
 import io.restassured.response.Response;
 import lombok.extern.slf4j.Slf4j;
-import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Ignore;
 import org.testng.annotations.Test;
 
 import java.io.IOException;
-import java.net.URI;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
-import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 
@@ -29,7 +26,6 @@ public class RestBotEngineTest extends BaseCRUDOperations {
     private final JsonSerialization jsonSerialization;
     private ResourceId botResourceId;
     private ResourceId bot2ResourceId;
-    private ResourceId conversationResourceId;
 
     public enum Status {
         READY,
@@ -47,38 +43,31 @@ public class RestBotEngineTest extends BaseCRUDOperations {
     public void setup() throws IOException, InterruptedException {
         super.setup();
         try {
-            botResourceId = deployBot("botengine/regularDictionary.json",
+            botResourceId = createBot("botengine/regularDictionary.json",
                     "botengine/behavior.json",
                     "botengine/output.json");
 
-            bot2ResourceId = deployBot(
+            bot2ResourceId = createBot(
                     "botengine/regularDictionary2.json",
                     "botengine/behavior2.json",
                     "botengine/output2.json");
+
+            deployBots(Arrays.asList(botResourceId, bot2ResourceId));
         } catch (InterruptedException e) {
             throw new IOException(e.getLocalizedMessage(), e);
         }
     }
 
-    private ResourceId deployBot(String regularDictionaryPath, String behaviorPath, String outputPath)
-            throws IOException, InterruptedException {
-        URI botLocationUri = new BotEngineSetup().setupBot(regularDictionaryPath, behaviorPath, outputPath);
-        ResourceId resourceId = UriUtilities.extractResourceId(botLocationUri);
-        deployBot(resourceId.getId(), resourceId.getVersion());
-        log.info(String.format("bot (id=%s , version=%s) has been deployed",
-                resourceId.getId(),
-                resourceId.getVersion()));
-
-        return resourceId;
-    }
-
-    @BeforeMethod
-    public void beforeMethod() {
-        conversationResourceId = createConversation(botResourceId.getId(), TEST_USER_ID);
+    /**
+     * Every test talks to a conversation of its own with a user of its own, so tests can run in parallel.
+     */
+    private ResourceId startConversation(ResourceId botResourceId) {
+        return createConversation(botResourceId.getId(), namespaced(TEST_USER_ID));
     }
 
     @Test
     public void checkWelcomeMessage() throws InterruptedException {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         //since asynchronous,getting the conversationLog could be to fast
         // if the machine on which eddi will be executed is too slow, thus wait a second to be sure it is done
         Thread.sleep(1000L);
@@ -101,6 +90,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void checkWordInputSimpleConversationLog() {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         Response response = sendUserInput(botResourceId, conversationResourceId, "hello", false, false);
 
         response.then().assertThat().
@@ -122,6 +112,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void checkWordInputSimpleConversationLogReturningOnlyCurrentStep() {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         Response response = sendUserInput(botResourceId, conversationResourceId, "hello", false, true);
 
         response.then().assertThat().
@@ -143,6 +134,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void checkSecondTimeWordInputSimpleConversationLog() {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         sendUserInput(botResourceId, conversationResourceId, "hello", false, false);
         Response response = sendUserInput(botResourceId, conversationResourceId, "hello", false, false);
 
@@ -161,6 +153,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void checkWordInputComplexConversationLog() {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         Response response = sendUserInput(botResourceId, conversationResourceId, "hello", true, false);
 
         response.then().assertThat().
@@ -186,6 +179,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void checkPhraseInputComplexConversationLog() {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         Response response = sendUserInput(botResourceId, conversationResourceId, "good afternoon", true, false);
 
         response.then().assertThat().
@@ -207,6 +201,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void checkQuickReplyConversationLog() {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         Response response = sendUserInput(botResourceId, conversationResourceId, "question", false, false);
 
         response.then().assertThat().
@@ -227,6 +222,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void checkQuickReplyRecognizedByParserConversationLog() {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         sendUserInput(botResourceId, conversationResourceId, "question", false, false);
         Response response = sendUserInput(botResourceId, conversationResourceId, "Option 1", true, false);
 
@@ -241,7 +237,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void checkWordInputComplexConversationLogWithSecondBotDeployed() {
-        ResourceId conversationResourceId2 = createConversation(bot2ResourceId.getId(), TEST_USER_ID);
+        ResourceId conversationResourceId2 = createConversation(bot2ResourceId.getId(), namespaced(TEST_USER_ID));
         Response response = sendUserInput(bot2ResourceId, conversationResourceId2,"hi", true, false);
 
         response.then().assertThat().
@@ -269,6 +265,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void testStringContextSendWithInput() throws IOException {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         Map<String, InputData.Context> contextMap = new HashMap<>();
         InputData.Context context = new InputData.Context(
                 InputData.Context.ContextType.string, "someContextValue");
@@ -298,6 +295,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void testExpressionContextSendWithInput() throws IOException {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         Map<String, InputData.Context> contextMap = new HashMap<>();
         InputData.Context context = new InputData.Context(
                 InputData.Context.ContextType.expressions, "expression(someValue), expression2(someOtherValue)");
@@ -327,6 +325,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void testObjectContextSendWithInput() throws IOException {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         Map<String, InputData.Context> contextMap = new HashMap<>();
         Object valueObject = jsonSerialization.toObject("{\"key\":\"value\"}", Object.class);
         InputData.Context context = new InputData.Context(
@@ -356,6 +355,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void testQuickReplyAsContext() throws IOException {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         Map<String, InputData.Context> contextMap = new HashMap<>();
         Object valueObject = jsonSerialization.toObject("[{\"value\":\"qr1\",\"expressions\":\"exp(qr1)\"}," +
                 "{\"value\":\"qr2\",\"expressions\":\"exp(qr2)\"}]", Object.class);
@@ -379,6 +379,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void testTemplatingOfOutput() throws IOException {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         Map<String, InputData.Context> contextMap = new HashMap<>();
         Object valueObject = jsonSerialization.toObject("{\"username\":\"John\"}", Object.class);
         InputData.Context context = new InputData.Context(
@@ -406,6 +407,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void testTemplatingOfQuickReply() throws IOException {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         Map<String, InputData.Context> contextMap = new HashMap<>();
         Object valueObject = jsonSerialization.toObject("{\"username\":\"John\"}", Object.class);
         InputData.Context context = new InputData.Context(
@@ -433,6 +435,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void testPropertyExtraction() throws IOException {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         InputData inputData = new InputData("property", new HashMap<>());
         Response response = sendUserInputWithContext(botResourceId, conversationResourceId, inputData, true);
 
@@ -451,6 +454,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void testPropertyExtractionWithPropertyInContext() throws IOException {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         Map<String, InputData.Context> contextMap = new HashMap<>();
         InputData.Context context = new InputData.Context(
                 InputData.Context.ContextType.expressions, "property(someCategory(someValue))");
@@ -476,6 +480,7 @@ public class RestBotEngineTest extends BaseCRUDOperations {
 
     @Test
     public void testConversationEnded() throws Exception {
+        ResourceId conversationResourceId = startConversation(botResourceId);
         Map<String, InputData.Context> contextMap = new HashMap<>();
         Object valueObject = jsonSerialization.toObject("{\"username\":\"John\"}", Object.class);
         InputData.Context context = new InputData.Context(
@@ -495,19 +500,12 @@ public class RestBotEngineTest extends BaseCRUDOperations {
                                               ResourceId conversationResourceId,
                                               InputData inputData,
                                               boolean returnDetailed) throws IOException {
-        return given().
-                contentType(ContentType.JSON).
-                body(jsonSerialization.toJson(inputData)).
-                post(String.format("bots/unrestricted/%s/%s?returnDetailed=%s&returnCurrentStepOnly=%s",
-                        resourceId.getId(),
-                        conversationResourceId.getId(),
-                        returnDetailed, false));
+        return sendUserInput(resourceId, conversationResourceId, inputData, returnDetailed, false);
     }
 
     private Response getConversationLogResponse(ResourceId botResourceId, ResourceId conversationResourceId, boolean returnDetailed) {
-        return given().
-                contentType(ContentType.JSON).
-                get(String.format("bots/unrestricted/%s/%s?returnDetailed=%s", botResourceId.getId(),
-                        conversationResourceId.getId(), returnDetailed));
+        return transport.send(TransportRequest.get(
+                String.format("bots/unrestricted/%s/%s?returnDetailed=%s", botResourceId.getId(),
+                        conversationResourceId.getId(), returnDetailed)));
     }
 }
@@ -1,5 +1,6 @@
 package ai.labs.testing.integration;
 
+import ai.labs.testing.ResourceId;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
@@ -15,6 +16,8 @@ public class RestOutputTest extends BaseCRUDOperations {
     private static final String ROOT_PATH = "/outputstore/outputsets/";
     private static final String RESOURCE_URI = "eddi://ai.labs.output" + ROOT_PATH;
 
+    private ResourceId resourceId;
+
     private String TEST_JSON;
     private String TEST_JSON2;
     private String PATCH_JSON;
@@ -31,12 +34,12 @@ public class RestOutputTest extends BaseCRUDOperations {
 
     @Test()
     public void createOutput() {
-        assertCreate(TEST_JSON, ROOT_PATH, RESOURCE_URI);
+        resourceId = assertCreate(TEST_JSON, ROOT_PATH, RESOURCE_URI);
     }
 
     @Test(dependsOnMethods = "createOutput")
     public void readOutput() {
-        assertRead(ROOT_PATH).
+        assertRead(ROOT_PATH, resourceId).
                 body("outputSet[1].action", equalTo("greet")).
                 body("outputSet[1].outputs[0].valueAlternatives[1].type", equalTo("text")).
                 body("outputSet[1].outputs[0].valueAlternatives[1].text", equalTo("Hey you!"));
@@ -44,18 +47,20 @@ public class RestOutputTest extends BaseCRUDOperations {
 
     @Test(dependsOnMethods = "readOutput")
     public void updateOutput() {
-        assertUpdate(TEST_JSON2, ROOT_PATH, RESOURCE_URI).
+        resourceId = assertUpdate(TEST_JSON2, ROOT_PATH, RESOURCE_URI, resourceId);
+        assertRead(ROOT_PATH, resourceId).
                 body("outputSet[0].outputs[0].valueAlternatives[0].text", endsWith("--changed!"));
     }
 
     @Test(dependsOnMethods = "updateOutput")
     public void patchOutput() {
-        assertPatch(PATCH_JSON, ROOT_PATH, RESOURCE_URI).
+        resourceId = assertPatch(PATCH_JSON, ROOT_PATH, RESOURCE_URI, resourceId);
+        assertRead(ROOT_PATH, resourceId).
                 body("outputSet[5].outputs[0].valueAlternatives[0].text", endsWith("--changed-again!"));
     }
 
     @Test(dependsOnMethods = "patchOutput")
     public void deleteOutput() {
-        assertDelete(ROOT_PATH);
+        assertDelete(ROOT_PATH, resourceId);
     }
 }
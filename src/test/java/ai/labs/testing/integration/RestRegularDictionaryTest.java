@@ -1,5 +1,6 @@
 package ai.labs.testing.integration;
 
+import ai.labs.testing.ResourceId;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
@@ -15,6 +16,8 @@ public class RestRegularDictionaryTest extends BaseCRUDOperations {
     private static final String ROOT_PATH = "/regulardictionarystore/regulardictionaries/";
     private static final String RESOURCE_URI = "eddi://ai.labs.regulardictionary" + ROOT_PATH;
 
+    private ResourceId resourceId;
+
     private String TEST_JSON;
     private String TEST_JSON2;
     private String PATCH_JSON;
@@ -31,12 +34,12 @@ public class RestRegularDictionaryTest extends BaseCRUDOperations {
 
     @Test()
     public void createRegularDictionary() {
-        assertCreate(TEST_JSON, ROOT_PATH, RESOURCE_URI);
+        resourceId = assertCreate(TEST_JSON, ROOT_PATH, RESOURCE_URI);
     }
 
     @Test(dependsOnMethods = "createRegularDictionary")
     public void readRegularDictionary() {
-        assertRead(ROOT_PATH).
+        assertRead(ROOT_PATH, resourceId).
                 body("words.word", hasItem("testword")).
                 body("words.expressions", hasItem("test_exp")).
                 body("words.frequency", hasItem(0)).
@@ -46,7 +49,8 @@ public class RestRegularDictionaryTest extends BaseCRUDOperations {
 
     @Test(dependsOnMethods = "readRegularDictionary")
     public void updateRegularDictionary() {
-        assertUpdate(TEST_JSON2, ROOT_PATH, RESOURCE_URI).
+        resourceId = assertUpdate(TEST_JSON2, ROOT_PATH, RESOURCE_URI, resourceId);
+        assertRead(ROOT_PATH, resourceId).
                 body("words.word", hasItem("testword2")).
                 body("words.expressions", hasItem("test_exp2")).
                 body("words.frequency", hasItem(1)).
@@ -56,7 +60,8 @@ public class RestRegularDictionaryTest extends BaseCRUDOperations {
 
     @Test(dependsOnMethods = "updateRegularDictionary")
     public void patchRegularDictionary() {
-        assertPatch(PATCH_JSON, ROOT_PATH, RESOURCE_URI).
+        resourceId = assertPatch(PATCH_JSON, ROOT_PATH, RESOURCE_URI, resourceId);
+        assertRead(ROOT_PATH, resourceId).
                 body("words.word", hasItem("testword2")).
                 body("words.expressions", hasItem("test_exp3")).
                 body("words.frequency", hasItem(2)).
@@ -67,6 +72,6 @@ public class RestRegularDictionaryTest extends BaseCRUDOperations {
 
     @Test(dependsOnMethods = "patchRegularDictionary")
     public void deleteRegularDictionary() {
-        assertDelete(ROOT_PATH);
+        assertDelete(ROOT_PATH, resourceId);
     }
 }
@@ -1,5 +1,7 @@
 package ai.labs.testing.integration;
 
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.transport.TransportRequest;
 import io.restassured.http.ContentType;
 import io.restassured.response.Response;
 import org.testng.annotations.AfterTest;
@@ -9,7 +11,6 @@ import org.testng.annotations.Test;
 
 import java.io.IOException;
 
-import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasItem;
 
@@ -24,8 +25,8 @@ public class RestSemanticParserTest extends BaseCRUDOperations {
     private String REGULAR_DICTIONARY;
     private String PARSER_CONFIG;
 
-    private String regularDictionaryId;
-    private Integer regularDictionaryVersion;
+    private ResourceId regularDictionaryResourceId;
+    private ResourceId parserResourceId;
 
     @BeforeTest
     public void setup() throws IOException, InterruptedException {
@@ -38,27 +39,24 @@ public class RestSemanticParserTest extends BaseCRUDOperations {
 
     @Test()
     public void createRegularDictionary() {
-        assertCreate(REGULAR_DICTIONARY, REGULARDICTIONARY_PATH,
+        regularDictionaryResourceId = assertCreate(REGULAR_DICTIONARY, REGULARDICTIONARY_PATH,
                 "eddi://ai.labs.regulardictionary" + REGULARDICTIONARY_PATH);
-        regularDictionaryId = resourceId.getId();
-        regularDictionaryVersion = resourceId.getVersion();
     }
 
     @Test(dependsOnMethods = "createRegularDictionary")
     public void createSemanticParserConfig() {
         String parserConfig = PARSER_CONFIG;
-        parserConfig = parserConfig.replaceAll("<UNIQUE_ID>", resourceId.getId());
-        parserConfig = parserConfig.replace("<VERSION>", resourceId.getVersion().toString());
-        assertCreate(parserConfig, ROOT_PATH, RESOURCE_URI);
+        parserConfig = parserConfig.replaceAll("<UNIQUE_ID>", regularDictionaryResourceId.getId());
+        parserConfig = parserConfig.replace("<VERSION>", regularDictionaryResourceId.getVersion().toString());
+        parserResourceId = assertCreate(parserConfig, ROOT_PATH, RESOURCE_URI);
     }
 
     @Test(dependsOnMethods = "createSemanticParserConfig")
     public void runParserOnWord() {
         //test
-        Response response = given().
-                body("hello").
-                contentType(ContentType.JSON).
-                post("/parser/" + resourceId.getId() + VERSION_STRING + resourceId.getVersion());
+        Response response = transport.send(TransportRequest.post(
+                "/parser/" + parserResourceId.getId() + VERSION_STRING + parserResourceId.getVersion(),
+                ContentType.JSON.toString(), "hello"));
 
         //assert
         response.then().
@@ -70,10 +68,9 @@ public class RestSemanticParserTest extends BaseCRUDOperations {
     @Test(dependsOnMethods = "runParserOnWord")
     public void runParserOnPhrase() {
         //test
-        Response response = given().
-                body("good afternoon").
-                contentType(ContentType.JSON).
-                post("/parser/" + resourceId.getId() + VERSION_STRING + resourceId.getVersion());
+        Response response = transport.send(TransportRequest.post(
+                "/parser/" + parserResourceId.getId() + VERSION_STRING + parserResourceId.getVersion(),
+                ContentType.JSON.toString(), "good afternoon"));
 
         //assert
         response.then().
@@ -85,10 +82,9 @@ public class RestSemanticParserTest extends BaseCRUDOperations {
     @Test(dependsOnMethods = "runParserOnPhrase")
     public void runParserOnWordWithSpellingMistake() {
         //test
-        Response response = given().
-                body("helo").
-                contentType(ContentType.JSON).
-                post("/parser/" + resourceId.getId() + VERSION_STRING + resourceId.getVersion());
+        Response response = transport.send(TransportRequest.post(
+                "/parser/" + parserResourceId.getId() + VERSION_STRING + parserResourceId.getVersion(),
+                ContentType.JSON.toString(), "helo"));
 
         //assert
         response.then().
@@ -100,10 +96,9 @@ public class RestSemanticParserTest extends BaseCRUDOperations {
     @Test(dependsOnMethods = "runParserOnPhrase")
     public void runParserOnRegEx() {
         //test
-        Response response = given().
-                body("S123456").
-                contentType(ContentType.JSON).
-                post("/parser/" + resourceId.getId() + VERSION_STRING + resourceId.getVersion());
+        Response response = transport.send(TransportRequest.post(
+                "/parser/" + parserResourceId.getId() + VERSION_STRING + parserResourceId.getVersion(),
+                ContentType.JSON.toString(), "S123456"));
 
         //assert
         response.then().
@@ -116,11 +111,12 @@ public class RestSemanticParserTest extends BaseCRUDOperations {
     @AfterTest
     public void deleteConfigFiles() {
         //clean up regular dictionary
-        String requestUri = REGULARDICTIONARY_PATH + regularDictionaryId + VERSION_STRING + regularDictionaryVersion;
-        given().delete(requestUri).then().statusCode(200);
-        given().get(requestUri).then().statusCode(404);
+        String requestUri = REGULARDICTIONARY_PATH + regularDictionaryResourceId.getId() +
+                VERSION_STRING + regularDictionaryResourceId.getVersion();
+        transport.send(TransportRequest.delete(requestUri)).then().statusCode(200);
+        transport.send(TransportRequest.get(requestUri)).then().statusCode(404);
 
         //cleanup parser config
-        assertDelete(ROOT_PATH);
+        assertDelete(ROOT_PATH, parserResourceId);
     }
 }
@@ -1,25 +1,23 @@
 package ai.labs.testing.integration;
 
 import ai.labs.testing.ResourceId;
-import ai.labs.testing.UriUtilities;
+import ai.labs.testing.transport.TransportRequest;
+import io.restassured.http.ContentType;
 import io.restassured.response.Response;
-import org.apache.commons.lang3.RandomStringUtils;
 import org.hamcrest.Matchers;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Ignore;
 import org.testng.annotations.Test;
 
-import java.io.FileNotFoundException;
 import java.io.IOException;
-import java.net.URI;
 import java.util.HashMap;
 import java.util.Map;
 
-import static io.restassured.RestAssured.given;
 import static org.hamcrest.Matchers.*;
 
 public class RestUseCaseTest extends BaseCRUDOperations {
     private static final String KEY_WEATHER_BOT = "weather-bot";
+    private static final String JSON = ContentType.JSON.toString();
     private final Map<String, ResourceId> bots = new HashMap<>();
 
     @BeforeTest
@@ -29,23 +27,10 @@ public class RestUseCaseTest extends BaseCRUDOperations {
         bots.put(KEY_WEATHER_BOT, importBot("weather_bot_v1"));
     }
 
-    private ResourceId importBot(String filename) throws FileNotFoundException, InterruptedException {
-        Response response = given().
-                contentType("application/zip").
-                basePath("/backup/import").
-                body(getFile("tests/useCases/" + filename + ".zip")).
-                post();
-
-        String location = response.getHeader("location");
-        ResourceId resourceId = UriUtilities.extractResourceId(URI.create(location));
-        deployBot(resourceId.getId(), resourceId.getVersion());
-        return resourceId;
-    }
-
     @Test
     public void weatherBot() {
         ResourceId resourceId = bots.get(KEY_WEATHER_BOT);
-        String testUserId = "testUser" + RandomStringUtils.randomAlphanumeric(10);
+        String testUserId = namespaced("testUser");
         ResourceId conversationId = createConversation(resourceId.getId(), testUserId);
         sendUserInput(resourceId, conversationId, "weather",
                 true, true);
@@ -91,20 +76,18 @@ public class RestUseCaseTest extends BaseCRUDOperations {
 
     @Test
     public void useBotManagement() throws IOException {
-        final String intent = "weather-bot";
-        final String userId = "12345";
+        final String intent = namespaced("weather-bot");
+        final String userId = namespaced("12345");
 
         ResourceId resourceId = bots.get(KEY_WEATHER_BOT);
-        given().contentType("application/json").
-                body(String.format(load("useCases/botdeployment.json"), resourceId.getId())).
-                put("/bottriggerstore/bottriggers/" + intent);
+        transport.send(TransportRequest.put("/bottriggerstore/bottriggers/" + intent, JSON,
+                String.format(load("useCases/botdeployment.json"), intent, resourceId.getId())));
 
-        given().post("/managedbots/" + intent + "/" + userId + "/endConversation");
+        transport.send(TransportRequest.post("/managedbots/" + intent + "/" + userId + "/endConversation"));
 
-        Response response = given().contentType("application/json").
-                body("{\"input\":\"weather\"}").
-                queryParam("returnCurrentStepOnly", "false").
-                post("/managedbots/" + intent + "/" + userId);
+        Response response = transport.send(TransportRequest.post(
+                "/managedbots/" + intent + "/" + userId + "?returnCurrentStepOnly=false",
+                JSON, "{\"input\":\"weather\"}"));
 
         response.then().assertThat().
                 body("botId", equalTo(resourceId.getId())).
@@ -0,0 +1,149 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.load.ClosedLoopDriver;
+import ai.labs.testing.load.LoadConfiguration;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.LoadReport;
+import ai.labs.testing.load.VariantComparison;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntFunction;
+
+import static ai.labs.testing.integration.ConversationLoadTest.ENDPOINT_CREATE_CONVERSATION;
+import static ai.labs.testing.integration.ConversationLoadTest.ENDPOINT_SEND_USER_INPUT;
+import static ai.labs.testing.integration.ConversationLoadTest.LOAD_USER_ID;
+
+/**
+ * Runs the weather bot in a closed loop twice: with every virtual user under a userId of its own, then with all
+ * of them under one userId, so that all their conversations update the same long-term property "count" at the
+ * same time. Logs throughput and latency of both runs, the per-turn latency of the shared userId next to its
+ * difference to the own ones, and checks that "count" of the shared userId saw every increment.
+ * Each conversation sends -Deddi.load.turnsPerConversation inputs.
+ */
+@Slf4j
+@Test(groups = "load")
+public class SameUserContentionLoadTest extends BaseCRUDOperations {
+    private static final String INPUT = "weather";
+    private static final String VARIANT_OWN_USER = "own userId per virtual user";
+    private static final String VARIANT_SHARED_USER = "one userId for all virtual users";
+
+    private ResourceId botResourceId;
+    private int turnsPerConversation;
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+
+        turnsPerConversation = Integer.parseInt(System.getProperty("eddi.load.turnsPerConversation", "3"));
+        botResourceId = importBot("weather_bot_v1");
+    }
+
+    public void sameUserContention() throws Exception {
+        Increments increments = calibrate();
+        VariantComparison comparison = new VariantComparison(
+                "per-turn latency, all virtual users under one userId compared to one userId each");
+
+        String ownUserPrefix = namespaced(LOAD_USER_ID);
+        run("same-user-contention-own", userIndex -> ownUserPrefix + "-" + userIndex, VARIANT_OWN_USER, comparison);
+        String sharedUserId = namespaced(LOAD_USER_ID);
+        Counts shared = run("same-user-contention-shared", userIndex -> sharedUserId,
+                VARIANT_SHARED_USER, comparison);
+        log.info(comparison.format());
+
+        // a final conversation, started and answered after all others have finished, reads the count
+        long expected = increments.expected(shared.started.sum() + 1, shared.turns.sum() + 1);
+        long uncertain = increments.expected(shared.failedStarts.sum(), shared.failedTurns.sum());
+        int count = readCount(sendUserInput(botResourceId, createConversation(botResourceId.getId(), sharedUserId),
+                INPUT, false, true));
+        log.info(String.format("count of the shared userId: %d, expected %d (+ up to %d of failed requests), %s",
+                count, expected, uncertain, count < expected ?
+                        (expected - count) + " increments lost" :
+                        count > expected + uncertain ? (count - expected) + " increments too many" : "consistent"));
+
+        Assert.assertTrue(count >= expected && count <= expected + uncertain,
+                String.format("count %d, expected %d to %d", count, expected, expected + uncertain));
+    }
+
+    private Counts run(String scenario, IntFunction<String> userIds, String variant,
+                                  VariantComparison comparison) throws Exception {
+        LoadConfiguration config = LoadConfiguration.fromSystemProperties();
+        LoadMetrics metrics = new LoadMetrics();
+        Counts counts = new Counts();
+
+        // the counts include the warmup, the long-term property does too
+        new ClosedLoopDriver(config).run(metrics, (userIndex, iteration) -> {
+            ResourceId conversationId = count(counts.started, counts.failedStarts, () -> metrics.time(
+                    ENDPOINT_CREATE_CONVERSATION, () -> createConversation(botResourceId.getId(), userIds.apply(userIndex)),
+                    id -> id != null));
+            for (int i = 0; i < turnsPerConversation; i++) {
+                count(counts.turns, counts.failedTurns, () -> metrics.time(ENDPOINT_SEND_USER_INPUT,
+                        () -> sendUserInput(botResourceId, conversationId, INPUT, false, true),
+                        response -> response.getStatusCode() == 200));
+            }
+        });
+
+        new LoadReport(scenario, metrics).print(config.getReportDirectory());
+        comparison.add(variant, metrics.endpoint(ENDPOINT_SEND_USER_INPUT));
+        return counts;
+    }
+
+    /**
+     * Finds out by how much "count" grows with a conversation start and with a turn.
+     */
+    private Increments calibrate() {
+        ResourceId conversationId = createConversation(botResourceId.getId(), namespaced("calibrationUser"));
+        int afterOneTurn = readCount(sendUserInput(botResourceId, conversationId, INPUT, false, true));
+        int afterTwoTurns = readCount(sendUserInput(botResourceId, conversationId, INPUT, false, true));
+        int perTurn = afterTwoTurns - afterOneTurn;
+        return new Increments(afterOneTurn - perTurn, perTurn);
+    }
+
+    private static int readCount(Response response) {
+        return response.then().statusCode(200).extract().path("conversationProperties.count.valueInt");
+    }
+
+    /**
+     * @param call a timed call, which throws unless it succeeded
+     */
+    private static <T> T count(LongAdder succeeded, LongAdder failed, Callable<T> call) throws Exception {
+        T result;
+        try {
+            result = call.call();
+        } catch (Exception e) {
+            failed.increment();
+            throw e;
+        }
+
+        succeeded.increment();
+        return result;
+    }
+
+    private static class Increments {
+        private final int perStart;
+        private final int perTurn;
+
+        private Increments(int perStart, int perTurn) {
+            this.perStart = perStart;
+            this.perTurn = perTurn;
+        }
+
+        private long expected(long starts, long turns) {
+            return starts * perStart + turns * perTurn;
+        }
+    }
+
+    private static class Counts {
+        private final LongAdder started = new LongAdder();
+        private final LongAdder failedStarts = new LongAdder();
+        private final LongAdder turns = new LongAdder();
+        private final LongAdder failedTurns = new LongAdder();
+    }
+}
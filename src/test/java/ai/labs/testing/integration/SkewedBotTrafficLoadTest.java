@@ -0,0 +1,148 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.UriUtilities;
+import ai.labs.testing.load.ClosedLoopDriver;
+import ai.labs.testing.load.LoadConfiguration;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.LoadReport;
+import ai.labs.testing.load.TrafficDistribution;
+import ai.labs.testing.load.VariantComparison;
+import ai.labs.testing.transport.TransportRequest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Properties;
+
+import static ai.labs.testing.integration.ConversationLengthLoadTest.INPUTS;
+import static ai.labs.testing.integration.ConversationLoadTest.ENDPOINT_CREATE_CONVERSATION;
+import static ai.labs.testing.integration.ConversationLoadTest.ENDPOINT_SEND_USER_INPUT;
+import static ai.labs.testing.integration.ConversationLoadTest.LOAD_USER_ID;
+
+/**
+ * Creates -Deddi.load.trafficBots bots like the one of RestBotEngineTest, each with resources of its own and
+ * -Deddi.load.botVersions versions, deploys all of them and lets virtual users converse with the bots, picking
+ * the bot of every conversation from a skewed {@link TrafficDistribution}. Conversations go to the latest version
+ * of a bot, the older ones are deployed alongside, as they are when a bot is updated. Logs the latency of every
+ * bot by popularity rank and compares conversation starts and turns of ranks 1, 2-10, 11-100 and so on, so the
+ * penalty of bots EDDI rarely sees shows next to the hot ones.
+ */
+@Slf4j
+@Test(groups = "load")
+public class SkewedBotTrafficLoadTest extends BaseCRUDOperations {
+    private static final String ENDPOINT_START_RANKS = "POST bots/unrestricted/{botId} [ranks %s]";
+    private static final String ENDPOINT_TURN_RANKS = "POST bots/unrestricted/{botId}/{conversationId} [ranks %s]";
+    private static final String ENDPOINT_TURN_BOT = "POST bots/unrestricted/{botId}/{conversationId} [rank %04d, %s]";
+    private static final String BOT_PATH = "botstore/bots/%s?version=%d";
+    private static final String JSON = ContentType.JSON.toString();
+
+    private final List<ResourceId> bots = new ArrayList<>();
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+
+        final Properties props = System.getProperties();
+        int botCount = Integer.parseInt(props.getProperty("eddi.load.trafficBots", "200"));
+        int versions = Integer.parseInt(props.getProperty("eddi.load.botVersions", "2"));
+
+        List<ResourceId> deployments = new ArrayList<>();
+        for (int i = 0; i < botCount; i++) {
+            // bypass the fixture cache, the bots must not share their packages
+            ResourceId bot = UriUtilities.extractResourceId(new BotEngineSetup(false).setupBot(
+                    "botengine/regularDictionary.json",
+                    "botengine/behavior.json",
+                    "botengine/output.json"));
+            deployments.add(bot);
+            for (int version = 2; version <= versions; version++) {
+                bot = createNextVersion(bot);
+                deployments.add(bot);
+            }
+            bots.add(bot);
+        }
+
+        deployBots(deployments);
+        log.info(String.format("%d bots with %d versions each have been deployed", botCount, versions));
+    }
+
+    public void skewedBotTraffic() throws Exception {
+        LoadConfiguration config = LoadConfiguration.fromSystemProperties();
+        TrafficDistribution distribution = TrafficDistribution.fromSystemProperties(bots.size());
+        LoadMetrics metrics = new LoadMetrics();
+        String userPrefix = namespaced(LOAD_USER_ID);
+
+        new ClosedLoopDriver(config).run(metrics, (userIndex, iteration) ->
+                runConversation(metrics, distribution.next(), userPrefix + "-" + userIndex));
+        new LoadReport("skewed-bot-traffic", metrics).print(config.getReportDirectory());
+
+        VariantComparison comparison = new VariantComparison(String.format(
+                "latency by popularity rank of the bot, %d bots, %s", bots.size(), distribution.getName()));
+        String hottestStart = null;
+        String hottestTurn = null;
+        for (int first = 0; first < bots.size(); first = nextBucket(first)) {
+            String ranks = ranks(first);
+            double share = 0;
+            for (int rank = first; rank < Math.min(nextBucket(first), bots.size()); rank++) {
+                share += distribution.share(rank);
+            }
+
+            String start = String.format("conversation start, ranks %s (%.1f%% of conversations)", ranks, share * 100);
+            String turn = String.format("turn, ranks %s (%.1f%% of conversations)", ranks, share * 100);
+            hottestStart = hottestStart == null ? start : hottestStart;
+            hottestTurn = hottestTurn == null ? turn : hottestTurn;
+            comparison.add(start, metrics.endpoint(String.format(ENDPOINT_START_RANKS, ranks)), hottestStart);
+            comparison.add(turn, metrics.endpoint(String.format(ENDPOINT_TURN_RANKS, ranks)), hottestTurn);
+        }
+        log.info(comparison.format());
+    }
+
+    private void runConversation(LoadMetrics metrics, int rank, String userId) throws Exception {
+        ResourceId bot = bots.get(rank);
+        String ranks = ranks(rank);
+        ResourceId conversationId = metrics.time(
+                Arrays.asList(ENDPOINT_CREATE_CONVERSATION, String.format(ENDPOINT_START_RANKS, ranks)),
+                () -> createConversation(bot.getId(), userId), id -> id != null);
+        List<String> turnEndpoints = Arrays.asList(ENDPOINT_SEND_USER_INPUT, String.format(ENDPOINT_TURN_RANKS, ranks),
+                String.format(ENDPOINT_TURN_BOT, rank + 1, bot.getId()));
+        for (String input : INPUTS) {
+            metrics.time(turnEndpoints, () -> sendUserInput(bot, conversationId, input, false, true),
+                    response -> response.getStatusCode() == 200);
+        }
+    }
+
+    /**
+     * @return the ranks of the bucket of the given (0-based) rank, 1-based: "1-1", "2-10", "11-100", ...
+     */
+    private String ranks(int rank) {
+        int first = 0;
+        while (nextBucket(first) <= rank) {
+            first = nextBucket(first);
+        }
+        return String.format("%d-%d", first + 1, Math.min(nextBucket(first), bots.size()));
+    }
+
+    /**
+     * @return the first (0-based) rank of the bucket after the one starting at the given rank
+     */
+    private static int nextBucket(int first) {
+        return first == 0 ? 1 : first * 10;
+    }
+
+    /**
+     * Stores the configuration of the bot again, which makes it a new version with the same packages.
+     */
+    private static ResourceId createNextVersion(ResourceId bot) {
+        String path = String.format(BOT_PATH, bot.getId(), bot.getVersion());
+        String botConfig = transport.send(TransportRequest.get(path)).then().statusCode(200).extract().asString();
+        Response response = transport.send(TransportRequest.put(path, JSON, botConfig));
+        response.then().statusCode(200);
+        return UriUtilities.extractResourceId(response.getHeader("location"));
+    }
+}
@@ -0,0 +1,122 @@
+package ai.labs.testing.integration;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.load.ClosedLoopDriver;
+import ai.labs.testing.load.LoadConfiguration;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.LoadReport;
+import ai.labs.testing.load.RollingWindows;
+import ai.labs.testing.transport.TransportRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.testng.Assert;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static ai.labs.testing.integration.ConversationLengthLoadTest.INPUTS;
+import static ai.labs.testing.integration.ConversationLoadTest.ENDPOINT_CREATE_CONVERSATION;
+import static ai.labs.testing.integration.ConversationLoadTest.ENDPOINT_SEND_USER_INPUT;
+import static ai.labs.testing.integration.ConversationLoadTest.LOAD_USER_ID;
+
+/**
+ * Keeps a steady mix of conversations with the bot of RestBotEngineTest going for -Deddi.load.soakDuration
+ * seconds, hours rather than minutes: each conversation is started, answers the inputs of the conversation
+ * scenarios, has its log read, is ended with "bye" and, as in RestBotEngineTest#testConversationEnded, must
+ * refuse a further input with 410. Latency and errors are kept in windows of -Deddi.load.soakWindow seconds
+ * ({@link RollingWindows}); drift of p99 or error rate over the windows is logged as warning and, with
+ * -Deddi.load.failOnDrift=true, fails the run.
+ */
+@Slf4j
+@Test(groups = "load")
+public class SoakLoadTest extends BaseCRUDOperations {
+    private static final String ENDPOINT_READ_LOG = "GET bots/unrestricted/{botId}/{conversationId}";
+    private static final String ENDPOINT_END = "POST bots/unrestricted/{botId}/{conversationId} (bye)";
+    private static final String ENDPOINT_AFTER_END = "POST bots/unrestricted/{botId}/{conversationId} (after the end)";
+    private static final String LOG_PATH = "bots/unrestricted/%s/%s?returnDetailed=false";
+    private static final String END_INPUT = "bye";
+    private static final long END_PAUSE_MILLIS = 100;
+
+    private ResourceId botResourceId;
+    private Duration soakDuration;
+    private Duration window;
+    private boolean failOnDrift;
+
+    @BeforeClass(groups = "load")
+    public void setup() throws IOException, InterruptedException {
+        super.setup();
+
+        final Properties props = System.getProperties();
+        soakDuration = Duration.ofSeconds(Long.parseLong(props.getProperty("eddi.load.soakDuration", "3600")));
+        window = Duration.ofSeconds(Long.parseLong(props.getProperty("eddi.load.soakWindow", "60")));
+        failOnDrift = Boolean.parseBoolean(props.getProperty("eddi.load.failOnDrift", "false"));
+
+        botResourceId = deployBot("botengine/regularDictionary.json",
+                "botengine/behavior.json",
+                "botengine/output.json");
+    }
+
+    public void soak() throws Exception {
+        LoadConfiguration config = LoadConfiguration.fromSystemProperties();
+        config.setDuration(soakDuration);
+        LoadMetrics metrics = new LoadMetrics();
+        RollingWindows windows = new RollingWindows(metrics, window, ENDPOINT_CREATE_CONVERSATION,
+                ENDPOINT_SEND_USER_INPUT, ENDPOINT_READ_LOG, ENDPOINT_END, ENDPOINT_AFTER_END);
+
+        String userPrefix = namespaced(LOAD_USER_ID);
+        ExecutorService driver = config.getExecutionMode().newExecutor("soak-", 1);
+        long measureStart = System.nanoTime() + config.getWarmup().toNanos();
+        Future<?> conversations = driver.submit(() -> {
+            new ClosedLoopDriver(config).run(metrics, (userIndex, iteration) ->
+                    runConversation(metrics, userPrefix + "-" + userIndex));
+            return null;
+        });
+        driver.shutdown();
+
+        // windows that would end after the run are left out, a shorter last one would skew the trends
+        long windowCount = soakDuration.toNanos() / window.toNanos();
+        for (long i = 1; i <= windowCount; i++) {
+            TimeUnit.NANOSECONDS.sleep(measureStart + i * window.toNanos() - System.nanoTime());
+            log.info(windows.closeWindow());
+        }
+        conversations.get();
+
+        new LoadReport("soak", metrics).print(config.getReportDirectory());
+        windows.write(Paths.get(config.getReportDirectory(), "soak", "windows.csv"));
+        log.info(windows.format());
+
+        List<String> drifts = windows.findDrifts();
+        for (String drift : drifts) {
+            log.warn("drift over the soak: " + drift);
+        }
+        if (failOnDrift) {
+            Assert.assertTrue(drifts.isEmpty(), "drift over the soak: " + drifts);
+        }
+    }
+
+    private void runConversation(LoadMetrics metrics, String userId) throws Exception {
+        ResourceId conversationId = metrics.time(ENDPOINT_CREATE_CONVERSATION,
+                () -> createConversation(botResourceId.getId(), userId), id -> id != null);
+        for (String input : INPUTS) {
+            metrics.time(ENDPOINT_SEND_USER_INPUT, () -> sendUserInput(botResourceId, conversationId, input, false, true),
+                    response -> response.getStatusCode() == 200);
+        }
+
+        metrics.time(ENDPOINT_READ_LOG, () -> transport.send(TransportRequest.get(
+                String.format(LOG_PATH, botResourceId.getId(), conversationId.getId()))),
+                response -> response.getStatusCode() == 200);
+        metrics.time(ENDPOINT_END, () -> sendUserInput(botResourceId, conversationId, END_INPUT, false, true),
+                response -> response.getStatusCode() == 200);
+        // the same pause as testConversationEnded, the end of a conversation is stored asynchronously
+        Thread.sleep(END_PAUSE_MILLIS);
+        metrics.time(ENDPOINT_AFTER_END, () -> sendUserInput(botResourceId, conversationId, END_INPUT, false, true),
+                response -> response.getStatusCode() == 410);
+    }
+}
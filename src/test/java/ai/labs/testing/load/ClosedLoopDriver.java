@@ -0,0 +1,160 @@
+package ai.labs.testing.load;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Runs a fixed number of virtual users, each one repeating its iteration (usually a scripted
+ * conversation) back to back until the configured duration has passed. Users are started evenly
+ * spread over the ramp up, everything recorded during the warmup is discarded.
+ */
+@Slf4j
+public class ClosedLoopDriver {
+    private final LoadConfiguration config;
+
+    public interface VirtualUser {
+        void runIteration(int userIndex, long iteration) throws Exception;
+    }
+
+    public interface AsyncVirtualUser {
+        CompletableFuture<?> runIteration(int userIndex, long iteration);
+    }
+
+    public ClosedLoopDriver(LoadConfiguration config) {
+        this.config = config;
+    }
+
+    public void run(LoadMetrics metrics, VirtualUser virtualUser) throws InterruptedException {
+        final int users = config.getVirtualUsers();
+        final long startTime = System.nanoTime();
+        final long measureStartTime = startTime + config.getWarmup().toNanos();
+        final long endTime = measureStartTime + config.getDuration().toNanos();
+        final long rampUpNanos = config.getRampUp().toNanos();
+        final long thinkTimeMillis = config.getThinkTime().toMillis();
+        final LongAdder failedIterations = new LongAdder();
+
+        ExecutorService executor = config.getExecutionMode().newExecutor("virtual-user-", users);
+        for (int i = 0; i < users; i++) {
+            final int userIndex = i;
+            final long userStartTime = startTime + rampUpNanos * userIndex / users;
+            executor.execute(() -> {
+                try {
+                    sleepUntil(userStartTime);
+                    for (long iteration = 0; System.nanoTime() < endTime; iteration++) {
+                        try {
+                            virtualUser.runIteration(userIndex, iteration);
+                        } catch (InterruptedException e) {
+                            throw e;
+                        } catch (Exception e) {
+                            failedIterations.increment();
+                            log.debug(e.getLocalizedMessage(), e);
+                        }
+
+                        if (thinkTimeMillis > 0) {
+                            Thread.sleep(thinkTimeMillis);
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+        }
+        executor.shutdown();
+
+        sleepUntil(measureStartTime);
+        metrics.reset();
+        failedIterations.reset();
+
+        long gracePeriodNanos = TimeUnit.MINUTES.toNanos(1);
+        if (!executor.awaitTermination(endTime - System.nanoTime() + gracePeriodNanos, TimeUnit.NANOSECONDS)) {
+            executor.shutdownNow();
+        }
+        metrics.stop();
+
+        log.info(String.format("closed loop run with %d virtual users finished, %d iterations failed",
+                users, failedIterations.sum()));
+    }
+
+    /**
+     * Same as {@link #run(LoadMetrics, VirtualUser)} for non-blocking virtual users: an iteration returns a
+     * future and the next iteration is started when it completes, so no thread is held per virtual user.
+     */
+    public void runAsync(LoadMetrics metrics, AsyncVirtualUser virtualUser) throws InterruptedException {
+        final int users = config.getVirtualUsers();
+        final long startTime = System.nanoTime();
+        final long measureStartTime = startTime + config.getWarmup().toNanos();
+        final long endTime = measureStartTime + config.getDuration().toNanos();
+        final long rampUpNanos = config.getRampUp().toNanos();
+        final LongAdder failedIterations = new LongAdder();
+        final CountDownLatch finishedUsers = new CountDownLatch(users);
+
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+                Runtime.getRuntime().availableProcessors(), runnable -> {
+                    Thread thread = new Thread(runnable, "pipelined-virtual-users");
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        for (int i = 0; i < users; i++) {
+            final int userIndex = i;
+            scheduler.schedule(() -> iterate(scheduler, virtualUser, userIndex, 0, endTime, failedIterations, finishedUsers),
+                    rampUpNanos * userIndex / users, TimeUnit.NANOSECONDS);
+        }
+
+        sleepUntil(measureStartTime);
+        metrics.reset();
+        failedIterations.reset();
+
+        finishedUsers.await(endTime - System.nanoTime() + TimeUnit.MINUTES.toNanos(1), TimeUnit.NANOSECONDS);
+        scheduler.shutdownNow();
+        metrics.stop();
+
+        log.info(String.format("pipelined closed loop run with %d virtual users finished, %d iterations failed",
+                users, failedIterations.sum()));
+    }
+
+    private void iterate(ScheduledExecutorService scheduler, AsyncVirtualUser virtualUser, int userIndex,
+                         long iteration, long endTime, LongAdder failedIterations, CountDownLatch finishedUsers) {
+        if (System.nanoTime() >= endTime || scheduler.isShutdown()) {
+            finishedUsers.countDown();
+            return;
+        }
+
+        CompletableFuture<?> future;
+        try {
+            future = virtualUser.runIteration(userIndex, iteration);
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+
+        future.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                failedIterations.increment();
+                log.debug(throwable.getLocalizedMessage(), throwable);
+            }
+
+            try {
+                // continue on the scheduler, futures that complete synchronously would otherwise nest deeper
+                // and deeper with every iteration
+                scheduler.schedule(() -> iterate(scheduler, virtualUser, userIndex, iteration + 1, endTime,
+                        failedIterations, finishedUsers), config.getThinkTime().toNanos(), TimeUnit.NANOSECONDS);
+            } catch (RejectedExecutionException e) {
+                finishedUsers.countDown();
+            }
+        });
+    }
+
+    static void sleepUntil(long nanoTime) throws InterruptedException {
+        long remaining = nanoTime - System.nanoTime();
+        if (remaining > 0) {
+            TimeUnit.NANOSECONDS.sleep(remaining);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package ai.labs.testing.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histogram (in microseconds) and error count of a single endpoint.
+ * Recording is lock-free, so it can be shared by all virtual users.
+ */
+public class EndpointMetrics {
+    static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.HOURS.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final String endpoint;
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram accumulated = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final Histogram window = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+    private final LongAdder errors = new LongAdder();
+    private long errorsBeforeWindow;
+    private Histogram interval;
+
+    EndpointMetrics(String endpoint) {
+        this.endpoint = endpoint;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public void record(long startNanos, long endNanos, boolean success) {
+        long micros = TimeUnit.NANOSECONDS.toMicros(endNanos - startNanos);
+        recorder.recordValue(Math.min(Math.max(micros, 0), HIGHEST_TRACKABLE_MICROS));
+        if (!success) {
+            errors.increment();
+        }
+    }
+
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    /**
+     * @return a copy of all latencies recorded since the last reset
+     */
+    public synchronized Histogram getHistogram() {
+        drain();
+        return accumulated.copy();
+    }
+
+    /**
+     * Ends the current window, which started with the previous call or the last reset, and starts the next.
+     * The latencies of a window stay part of {@link #getHistogram()}.
+     */
+    public synchronized LatencyWindow closeWindow() {
+        drain();
+        long errorsNow = errors.sum();
+        LatencyWindow closed = new LatencyWindow(window.copy(), errorsNow - errorsBeforeWindow);
+        window.reset();
+        errorsBeforeWindow = errorsNow;
+        return closed;
+    }
+
+    synchronized void reset() {
+        drain();
+        accumulated.reset();
+        window.reset();
+        errors.reset();
+        errorsBeforeWindow = 0;
+    }
+
+    private void drain() {
+        interval = recorder.getIntervalHistogram(interval);
+        accumulated.add(interval);
+        window.add(interval);
+    }
+}
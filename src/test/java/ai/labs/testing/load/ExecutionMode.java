@@ -0,0 +1,36 @@
+package ai.labs.testing.load;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * How the load drivers execute the blocking calls of their virtual users.
+ */
+public enum ExecutionMode {
+    /**
+     * One platform (OS) thread per virtual user or in-flight request.
+     */
+    PLATFORM,
+    /**
+     * One virtual thread per virtual user or in-flight request, carried by a few platform threads.
+     */
+    VIRTUAL;
+
+    /**
+     * @param threadNamePrefix name prefix of the created threads
+     * @param maxThreads       upper bound of concurrently running tasks, only needed for PLATFORM
+     */
+    public ExecutorService newExecutor(String threadNamePrefix, int maxThreads) {
+        if (this == VIRTUAL) {
+            return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(threadNamePrefix, 1).factory());
+        }
+
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(maxThreads, runnable -> {
+            Thread thread = new Thread(runnable, threadNamePrefix + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package ai.labs.testing.load;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.HdrHistogram.Histogram;
+
+/**
+ * Latencies (in microseconds) and errors of one endpoint within a window of a run.
+ */
+@Getter
+@AllArgsConstructor
+public class LatencyWindow {
+    private final Histogram histogram;
+    private final long errors;
+}
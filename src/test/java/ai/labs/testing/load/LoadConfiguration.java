@@ -0,0 +1,58 @@
+package ai.labs.testing.load;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.Duration;
+import java.util.Properties;
+
+/**
+ * Settings of a load run, read from system properties (e.g. -Deddi.load.users=2000).
+ */
+@Getter
+@Setter
+public class LoadConfiguration {
+    private int virtualUsers = 100;
+    private Duration rampUp = Duration.ofSeconds(10);
+    private Duration warmup = Duration.ofSeconds(10);
+    private Duration duration = Duration.ofSeconds(60);
+    private Duration thinkTime = Duration.ZERO;
+    private int arrivalRate = 100;
+    private int maxInFlight = 1000;
+    private Duration gracePeriod = Duration.ofSeconds(60);
+    private int bots = 20;
+    private ExecutionMode executionMode = ExecutionMode.VIRTUAL;
+    private String reportDirectory = "target/load-reports";
+
+    public static LoadConfiguration fromSystemProperties() {
+        final Properties props = System.getProperties();
+        LoadConfiguration config = new LoadConfiguration();
+
+        config.setVirtualUsers(getInt(props, "eddi.load.users", config.getVirtualUsers()));
+        config.setRampUp(getSeconds(props, "eddi.load.rampUp", config.getRampUp()));
+        config.setWarmup(getSeconds(props, "eddi.load.warmup", config.getWarmup()));
+        config.setDuration(getSeconds(props, "eddi.load.duration", config.getDuration()));
+        config.setThinkTime(getMillis(props, "eddi.load.thinkTime", config.getThinkTime()));
+        config.setArrivalRate(getInt(props, "eddi.load.rate", config.getArrivalRate()));
+        config.setMaxInFlight(getInt(props, "eddi.load.maxInFlight", config.getMaxInFlight()));
+        config.setGracePeriod(getSeconds(props, "eddi.load.gracePeriod", config.getGracePeriod()));
+        config.setBots(getInt(props, "eddi.load.bots", config.getBots()));
+        config.setExecutionMode(ExecutionMode.valueOf(
+                props.getProperty("eddi.load.threads", config.getExecutionMode().name()).toUpperCase()));
+        config.setReportDirectory(props.getProperty("eddi.load.reportDir", config.getReportDirectory()));
+
+        return config;
+    }
+
+    static int getInt(Properties props, String key, int defaultValue) {
+        return props.containsKey(key) ? Integer.parseInt(props.getProperty(key)) : defaultValue;
+    }
+
+    static Duration getSeconds(Properties props, String key, Duration defaultValue) {
+        return props.containsKey(key) ? Duration.ofSeconds(Long.parseLong(props.getProperty(key))) : defaultValue;
+    }
+
+    static Duration getMillis(Properties props, String key, Duration defaultValue) {
+        return props.containsKey(key) ? Duration.ofMillis(Long.parseLong(props.getProperty(key))) : defaultValue;
+    }
+}
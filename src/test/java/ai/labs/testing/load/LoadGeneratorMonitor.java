@@ -0,0 +1,58 @@
+package ai.labs.testing.load;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Resource usage of the load generating JVM itself during a run: peak number of platform threads,
+ * CPU time and heap. Used to compare the execution modes, a generator that runs out of threads or CPU
+ * measures itself instead of EDDI.
+ */
+public class LoadGeneratorMonitor {
+    private final ThreadMXBean threadMXBean = ManagementFactory.getThreadMXBean();
+    private final MemoryMXBean memoryMXBean = ManagementFactory.getMemoryMXBean();
+    private final com.sun.management.OperatingSystemMXBean osMXBean =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+    private ScheduledExecutorService sampler;
+    private long startCpuNanos;
+    private long startNanos;
+    private long stopCpuNanos;
+    private long stopNanos;
+    private volatile long peakHeapBytes;
+
+    public void start() {
+        threadMXBean.resetPeakThreadCount();
+        startCpuNanos = osMXBean.getProcessCpuTime();
+        startNanos = System.nanoTime();
+        peakHeapBytes = 0;
+
+        sampler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "load-generator-monitor");
+            thread.setDaemon(true);
+            return thread;
+        });
+        sampler.scheduleAtFixedRate(() -> peakHeapBytes =
+                Math.max(peakHeapBytes, memoryMXBean.getHeapMemoryUsage().getUsed()), 0, 1, TimeUnit.SECONDS);
+    }
+
+    public void stop() {
+        sampler.shutdownNow();
+        stopCpuNanos = osMXBean.getProcessCpuTime();
+        stopNanos = System.nanoTime();
+    }
+
+    public String format() {
+        double elapsedSeconds = (stopNanos - startNanos) / 1_000_000_000d;
+        double cpuSeconds = (stopCpuNanos - startCpuNanos) / 1_000_000_000d;
+        return String.format("load generator: peak platform threads %d, cpu %.1f s (%.0f%% of one core), " +
+                        "peak heap %d MB",
+                threadMXBean.getPeakThreadCount(),
+                cpuSeconds,
+                cpuSeconds / elapsedSeconds * 100,
+                peakHeapBytes / (1024 * 1024));
+    }
+}
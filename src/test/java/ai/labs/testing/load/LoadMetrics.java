@@ -0,0 +1,156 @@
+package ai.labs.testing.load;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Per-endpoint metrics of one load run plus the measured time window used for throughput.
+ */
+public class LoadMetrics {
+    public static final String SERVICE_TIME_SUFFIX = " (service time)";
+    private final Map<String, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+    private volatile long startNanos = System.nanoTime();
+    private volatile long stopNanos = -1;
+    private volatile Predicate<Long> intendedStartClaim = intendedStartNanos -> true;
+
+    public EndpointMetrics endpoint(String endpoint) {
+        return endpoints.computeIfAbsent(endpoint, EndpointMetrics::new);
+    }
+
+    public <T> T time(String endpoint, Callable<T> call) throws Exception {
+        return time(endpoint, call, result -> true);
+    }
+
+    /**
+     * Executes the call and records its latency for the given endpoint. A call that throws or whose
+     * result doesn't pass isSuccess is counted as an error and ends in an exception.
+     */
+    public <T> T time(String endpoint, Callable<T> call, Predicate<T> isSuccess) throws Exception {
+        return time(Collections.singletonList(endpoint), null, call, isSuccess);
+    }
+
+    /**
+     * Same as {@link #time(String, Callable, Predicate)}, but the call is recorded for each of the given
+     * endpoints, e.g. for an overall endpoint and a breakdown of it. The first one names the call in the exception.
+     */
+    public <T> T time(List<String> endpoints, Callable<T> call, Predicate<T> isSuccess) throws Exception {
+        return time(endpoints, null, call, isSuccess);
+    }
+
+    /**
+     * Same as {@link #time(String, Callable, Predicate)}, but the latency is measured from the time the
+     * request was supposed to be sent, so that any delay on the way to the actual send is part of it.
+     * The pure service time is additionally recorded as "{endpoint}{@value #SERVICE_TIME_SUFFIX}".
+     */
+    public <T> T time(String endpoint, long intendedStartNanos, Callable<T> call, Predicate<T> isSuccess)
+            throws Exception {
+        return time(Collections.singletonList(endpoint), Long.valueOf(intendedStartNanos), call, isSuccess);
+    }
+
+    private <T> T time(List<String> endpoints, Long intendedStartNanos, Callable<T> call, Predicate<T> isSuccess)
+            throws Exception {
+        long start = System.nanoTime();
+        T result;
+        try {
+            result = call.call();
+        } catch (Exception e) {
+            record(endpoints, intendedStartNanos, start, System.nanoTime(), false);
+            throw e;
+        }
+
+        boolean success = isSuccess.test(result);
+        record(endpoints, intendedStartNanos, start, System.nanoTime(), success);
+        if (!success) {
+            throw new IllegalStateException(String.format("Unexpected response from %s", endpoints.get(0)));
+        }
+
+        return result;
+    }
+
+    /**
+     * Asynchronous variant of {@link #time(String, Callable, Predicate)}, the latency is recorded when the
+     * returned future completes.
+     */
+    public <T> CompletableFuture<T> timeAsync(String endpoint, Supplier<CompletableFuture<T>> call,
+                                              Predicate<T> isSuccess) {
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            record(endpoint, null, start, System.nanoTime(), false);
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return future.whenComplete((result, throwable) -> {
+            if (throwable != null) {
+                record(endpoint, null, start, System.nanoTime(), false);
+            }
+        }).thenApply(result -> {
+            boolean success = isSuccess.test(result);
+            record(endpoint, null, start, System.nanoTime(), success);
+            if (!success) {
+                throw new IllegalStateException(String.format("Unexpected response from %s", endpoint));
+            }
+
+            return result;
+        });
+    }
+
+    private void record(List<String> endpoints, Long intendedStartNanos, long startNanos, long endNanos,
+                        boolean success) {
+        if (intendedStartNanos != null && !intendedStartClaim.test(intendedStartNanos)) {
+            return;
+        }
+        for (String endpoint : endpoints) {
+            record(endpoint, intendedStartNanos, startNanos, endNanos, success);
+        }
+    }
+
+    private void record(String endpoint, Long intendedStartNanos, long startNanos, long endNanos, boolean success) {
+        if (intendedStartNanos == null) {
+            endpoint(endpoint).record(startNanos, endNanos, success);
+        } else {
+            endpoint(endpoint).record(intendedStartNanos, endNanos, success);
+            endpoint(endpoint + SERVICE_TIME_SUFFIX).record(startNanos, endNanos, success);
+        }
+    }
+
+    /**
+     * Calls timed from an intended start are only recorded if the claim accepts their intended start,
+     * so that a request the {@link OpenLoopDriver} has already dropped isn't recorded again when it completes.
+     */
+    void setIntendedStartClaim(Predicate<Long> intendedStartClaim) {
+        this.intendedStartClaim = intendedStartClaim;
+    }
+
+    /**
+     * Discards everything recorded so far (e.g. at the end of the warmup) and restarts the time window.
+     */
+    public void reset() {
+        endpoints.values().forEach(EndpointMetrics::reset);
+        startNanos = System.nanoTime();
+        stopNanos = -1;
+    }
+
+    public void stop() {
+        stopNanos = System.nanoTime();
+    }
+
+    public double getElapsedSeconds() {
+        long end = stopNanos < 0 ? System.nanoTime() : stopNanos;
+        return (end - startNanos) / 1_000_000_000d;
+    }
+
+    public Collection<EndpointMetrics> getEndpoints() {
+        return new TreeMap<>(endpoints).values();
+    }
+}
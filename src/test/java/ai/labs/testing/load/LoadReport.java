@@ -0,0 +1,72 @@
+package ai.labs.testing.load;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Histogram;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Logs throughput and latency percentiles per endpoint and writes the full
+ * percentile distribution of each endpoint as .hgrm file.
+ */
+@Slf4j
+public class LoadReport {
+    private static final String HEADER_FORMAT = "%-55s %10s %8s %10s %10s %10s %10s %10s";
+    private static final String ROW_FORMAT = "%-55s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f";
+    private static final double MICROS_PER_MILLI = 1000d;
+
+    private final String scenario;
+    private final LoadMetrics metrics;
+
+    public LoadReport(String scenario, LoadMetrics metrics) {
+        this.scenario = scenario;
+        this.metrics = metrics;
+    }
+
+    public String format() {
+        double elapsedSeconds = metrics.getElapsedSeconds();
+        StringBuilder report = new StringBuilder();
+        report.append(String.format("load scenario '%s' (%.1f s)%n", scenario, elapsedSeconds));
+        report.append(String.format(HEADER_FORMAT,
+                "endpoint", "count", "errors", "req/s", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+
+        for (EndpointMetrics endpoint : metrics.getEndpoints()) {
+            Histogram histogram = endpoint.getHistogram();
+            report.append(String.format("%n" + ROW_FORMAT,
+                    endpoint.getEndpoint(),
+                    histogram.getTotalCount(),
+                    endpoint.getErrors(),
+                    histogram.getTotalCount() / elapsedSeconds,
+                    histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                    histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                    histogram.getValueAtPercentile(99.9) / MICROS_PER_MILLI,
+                    histogram.getMaxValue() / MICROS_PER_MILLI));
+        }
+
+        return report.toString();
+    }
+
+    public void print(String reportDirectory) throws IOException {
+        log.info(format());
+
+        Path directory = Paths.get(reportDirectory, sanitize(scenario));
+        Files.createDirectories(directory);
+        for (EndpointMetrics endpoint : metrics.getEndpoints()) {
+            Path file = directory.resolve(sanitize(endpoint.getEndpoint()) + ".hgrm");
+            try (PrintStream out = new PrintStream(new FileOutputStream(file.toFile()))) {
+                endpoint.getHistogram().outputPercentileDistribution(out, MICROS_PER_MILLI);
+            }
+        }
+
+        log.info(String.format("latency histograms (ms) have been written to %s", directory.toAbsolutePath()));
+    }
+
+    private static String sanitize(String name) {
+        return name.replaceAll("[^a-zA-Z0-9._-]+", "_");
+    }
+}
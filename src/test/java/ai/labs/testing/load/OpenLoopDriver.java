@@ -0,0 +1,132 @@
+package ai.labs.testing.load;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static ai.labs.testing.load.ClosedLoopDriver.sleepUntil;
+
+/**
+ * Fires requests on a fixed arrival schedule, independent of how fast responses come back.
+ * Request n is due at start + n / arrivalRate. If the server stalls, requests queue up
+ * (bounded by maxInFlight concurrent executions) instead of being sent later, and every request
+ * gets its intended send time, so a stall shows up in the latency of all requests it delayed
+ * (no coordinated omission). Requests that haven't completed within the grace period after the last one
+ * was due are dropped and recorded as errors of {@value #ENDPOINT_DROPPED}, from their intended send time.
+ * A dropped request that completes later isn't recorded again.
+ */
+@Slf4j
+public class OpenLoopDriver {
+    public static final String ENDPOINT_DROPPED = "open loop: dropped after the grace period";
+    private static final Duration INTERRUPTED_GRACE_PERIOD = Duration.ofSeconds(10);
+
+    private final LoadConfiguration config;
+
+    public interface Request {
+        void execute(long intendedStartNanos) throws Exception;
+    }
+
+    public OpenLoopDriver(LoadConfiguration config) {
+        this.config = config;
+    }
+
+    public void run(LoadMetrics metrics, Request request) throws InterruptedException {
+        if (config.getArrivalRate() <= 0) {
+            throw new IllegalArgumentException(String.format(
+                    "The arrival rate (-Deddi.load.rate) must be at least 1 request per second, but is %d",
+                    config.getArrivalRate()));
+        }
+
+        final long intervalNanos = TimeUnit.SECONDS.toNanos(1) / config.getArrivalRate();
+        final long startTime = System.nanoTime();
+        final long measureStartTime = startTime + config.getWarmup().toNanos();
+        final long endTime = measureStartTime + config.getDuration().toNanos();
+        final LongAdder failedRequests = new LongAdder();
+        // intended start of each request not recorded yet -> whether the driver has dropped it
+        final Map<Long, Boolean> pending = new ConcurrentHashMap<>();
+        // a request is recorded only if it takes its key before the driver drops it, never both
+        metrics.setIntendedStartClaim(intendedStartNanos -> pending.remove(intendedStartNanos, Boolean.FALSE));
+
+        final Semaphore inFlight = new Semaphore(config.getMaxInFlight());
+
+        ExecutorService executor = config.getExecutionMode().newExecutor("open-loop-", config.getMaxInFlight());
+        boolean measuring = false;
+        long maxBacklog = 0;
+        long sent = 0;
+        for (long intendedStartTime = startTime; intendedStartTime < endTime; intendedStartTime += intervalNanos) {
+            sleepUntil(intendedStartTime);
+            if (!measuring && intendedStartTime >= measureStartTime) {
+                measuring = true;
+                metrics.reset();
+                failedRequests.reset();
+            }
+
+            final long intendedStart = intendedStartTime;
+            pending.put(intendedStart, Boolean.FALSE);
+            executor.execute(() -> {
+                boolean started = false;
+                boolean failed = false;
+                try {
+                    inFlight.acquire();
+                    try {
+                        started = true;
+                        request.execute(intendedStart);
+                    } finally {
+                        inFlight.release();
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    failed = true;
+                } catch (Exception e) {
+                    failed = true;
+                    log.debug(e.getLocalizedMessage(), e);
+                }
+
+                // TRUE if the driver has dropped and counted the request already
+                Boolean dropped = pending.remove(intendedStart);
+                if (Boolean.TRUE.equals(dropped)) {
+                    return;
+                }
+                if (failed) {
+                    failedRequests.increment();
+                }
+                if (!started && dropped != null) {
+                    metrics.endpoint(ENDPOINT_DROPPED).record(intendedStart, System.nanoTime(), false);
+                }
+            });
+            sent++;
+            maxBacklog = Math.max(maxBacklog, (System.nanoTime() - intendedStartTime) / intervalNanos);
+        }
+        executor.shutdown();
+
+        final Duration gracePeriod = config.getGracePeriod();
+        if (!executor.awaitTermination(gracePeriod.toNanos(), TimeUnit.NANOSECONDS)) {
+            // interrupts the stalled requests, the queued ones never start and are left in pending,
+            // so are the requests blocked in a read that ignores the interrupt
+            executor.shutdownNow();
+            Duration interruptedGracePeriod = gracePeriod.compareTo(INTERRUPTED_GRACE_PERIOD) < 0 ?
+                    gracePeriod : INTERRUPTED_GRACE_PERIOD;
+            executor.awaitTermination(interruptedGracePeriod.toNanos(), TimeUnit.NANOSECONDS);
+            long now = System.nanoTime();
+            for (Long intendedStart : pending.keySet()) {
+                if (pending.replace(intendedStart, Boolean.FALSE, Boolean.TRUE)) {
+                    metrics.endpoint(ENDPOINT_DROPPED).record(intendedStart, now, false);
+                    failedRequests.increment();
+                }
+            }
+            log.warn(String.format("open loop run dropped the requests still running or queued %d second(s) " +
+                    "after the last one was due, see %s", gracePeriod.toSeconds(), ENDPOINT_DROPPED));
+        }
+        metrics.stop();
+
+        log.info(String.format("open loop run at %d req/s finished, %d requests sent, %d failed, " +
+                        "scheduler fell behind by up to %d requests",
+                config.getArrivalRate(), sent, failedRequests.sum(), maxBacklog));
+    }
+}
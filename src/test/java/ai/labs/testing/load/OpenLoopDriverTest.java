@@ -0,0 +1,66 @@
+package ai.labs.testing.load;
+
+import ai.labs.testing.standin.EddiStandInServer;
+import ai.labs.testing.standin.LatencyProfile;
+import ai.labs.testing.transport.RestAssuredTransport;
+import ai.labs.testing.transport.Transport;
+import ai.labs.testing.transport.TransportRequest;
+import io.restassured.RestAssured;
+import io.restassured.http.ContentType;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+
+@Test(groups = "standin")
+public class OpenLoopDriverTest {
+    private static final Duration PAUSE_INTERVAL = Duration.ofSeconds(6);
+    private static final Duration PAUSE = Duration.ofSeconds(5);
+
+    @Test(expectedExceptions = IllegalArgumentException.class, expectedExceptionsMessageRegExp = ".*-Deddi.load.rate.*")
+    public void rejectsArrivalRateOfZero() throws InterruptedException {
+        LoadConfiguration config = new LoadConfiguration();
+        config.setArrivalRate(0);
+        new OpenLoopDriver(config).run(new LoadMetrics(), intendedStart -> {
+        });
+    }
+
+    public void dropsStalledRequestsOnlyOnce() throws IOException, InterruptedException {
+        EddiStandInServer server = new EddiStandInServer(0, LatencyProfile.none(), Duration.ZERO).start();
+        server.setLatency(EddiStandInServer.ROUTE_CONVERSATION, LatencyProfile.parse(String.format(
+                "none,pause:%dms:%dms", PAUSE_INTERVAL.toMillis(), PAUSE.toMillis())));
+        // rest-assured on platform threads blocks in socket reads that ignore the driver's interrupt
+        RestAssured.baseURI = server.getBaseUri();
+        RestAssured.port = server.getPort();
+        Transport transport = new RestAssuredTransport();
+        TransportRequest say = TransportRequest.post("bots/unrestricted/bot/conversation",
+                ContentType.TEXT.toString(), "hello");
+
+        LoadConfiguration config = new LoadConfiguration();
+        config.setArrivalRate(20);
+        config.setWarmup(Duration.ZERO);
+        config.setDuration(Duration.ofMillis(500));
+        config.setMaxInFlight(2);
+        config.setGracePeriod(Duration.ofSeconds(1));
+        config.setExecutionMode(ExecutionMode.PLATFORM);
+        LoadMetrics metrics = new LoadMetrics();
+        try {
+            // starts the run with a pause, so that every request outlasts the grace period
+            long intervalNanos = PAUSE_INTERVAL.toNanos();
+            Thread.sleep((intervalNanos - Math.floorMod(System.nanoTime(), intervalNanos)) / 1_000_000 + 1);
+            new OpenLoopDriver(config).run(metrics, intendedStart ->
+                    metrics.time("say", intendedStart, () -> transport.send(say), response -> true));
+
+            // lets the requests still blocked in a read complete after the pause
+            Thread.sleep(PAUSE.toMillis());
+        } finally {
+            RestAssured.reset();
+            server.stop();
+        }
+
+        Assert.assertEquals(metrics.endpoint(OpenLoopDriver.ENDPOINT_DROPPED).getErrors(), 10);
+        Assert.assertEquals(metrics.endpoint("say").getHistogram().getTotalCount(), 0,
+                "dropped requests were recorded again when they completed");
+    }
+}
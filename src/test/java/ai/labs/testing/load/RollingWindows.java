@@ -0,0 +1,248 @@
+package ai.labs.testing.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits a long run into windows of equal length and keeps count, errors, p50 and p99 of every window per
+ * endpoint, so that slow degradation shows instead of being averaged away. Drift over the windows is flagged
+ * when it is significant (two-sided, 1%): a monotonic trend of the p99 by the Mann-Kendall test, its size
+ * estimated by Sen's slope, and a trend of the error rate by the Cochran-Armitage test.
+ */
+public class RollingWindows {
+    private static final String HEADER_FORMAT = "%-55s %8s %10s %10s %12s %8s %10s %10s %8s  %s";
+    private static final String ROW_FORMAT = "%-55s %8d %10.2f %10.2f %+12.2f %+8.2f %9.3f%% %9.3f%% %+8.2f  %s";
+    private static final double Z_CRITICAL = 2.576;
+    private static final int MIN_WINDOWS = 8;
+    private static final double MICROS_PER_MILLI = 1000d;
+
+    private final LoadMetrics metrics;
+    private final Duration windowLength;
+    private final Map<String, List<Window>> windows = new LinkedHashMap<>();
+
+    /**
+     * @param endpoints the endpoints of the metrics to keep windows of
+     */
+    public RollingWindows(LoadMetrics metrics, Duration windowLength, String... endpoints) {
+        this.metrics = metrics;
+        this.windowLength = windowLength;
+        for (String endpoint : endpoints) {
+            windows.put(endpoint, new ArrayList<>());
+        }
+    }
+
+    /**
+     * Ends the current window of all endpoints.
+     *
+     * @return a line with p99 and error rate of each endpoint in the window just ended
+     */
+    public String closeWindow() {
+        StringBuilder line = new StringBuilder(String.format("window %d:", getWindowCount() + 1));
+        for (Map.Entry<String, List<Window>> entry : windows.entrySet()) {
+            LatencyWindow latencies = metrics.endpoint(entry.getKey()).closeWindow();
+            Histogram histogram = latencies.getHistogram();
+            Window window = new Window(histogram.getTotalCount(), latencies.getErrors(),
+                    histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                    histogram.getValueAtPercentile(99) / MICROS_PER_MILLI);
+            entry.getValue().add(window);
+            line.append(String.format(" [%s] p99 %.2f ms, %.3f%% errors", entry.getKey(), window.p99,
+                    window.getErrorRate() * 100));
+        }
+        return line.toString();
+    }
+
+    public int getWindowCount() {
+        return windows.values().iterator().next().size();
+    }
+
+    /**
+     * @return per endpoint: windows, p99 of the first and last window, the p99 trend (Sen's slope, ms per hour)
+     * and its z, the error rate of the first and last window and the z of its trend, and what is flagged
+     */
+    public String format() {
+        StringBuilder table = new StringBuilder(String.format(
+                "drift over %d windows of %d s (flagged at |z| > %.3f)%n", getWindowCount(),
+                windowLength.getSeconds(), Z_CRITICAL));
+        table.append(String.format(HEADER_FORMAT, "endpoint", "windows", "first p99", "last p99", "p99 ms/hour",
+                "p99 z", "first err", "last err", "err z", "drift"));
+        for (Map.Entry<String, List<Window>> entry : windows.entrySet()) {
+            List<Window> series = entry.getValue();
+            if (series.isEmpty()) {
+                continue;
+            }
+
+            Window first = series.get(0);
+            Window last = series.get(series.size() - 1);
+            table.append(String.format("%n" + ROW_FORMAT, entry.getKey(), series.size(), first.p99, last.p99,
+                    senSlope(series) * windowsPerHour(), mannKendallZ(series), first.getErrorRate() * 100,
+                    last.getErrorRate() * 100, cochranArmitageZ(series),
+                    series.size() < MIN_WINDOWS ? "too few windows to tell" : describeDrift(series)));
+        }
+
+        return table.toString();
+    }
+
+    /**
+     * @return a message per endpoint with significant drift, empty if there is none or too few windows
+     */
+    public List<String> findDrifts() {
+        List<String> drifts = new ArrayList<>();
+        for (Map.Entry<String, List<Window>> entry : windows.entrySet()) {
+            String drift = describeDrift(entry.getValue());
+            if (!drift.isEmpty()) {
+                drifts.add(String.format("%s: %s", entry.getKey(), drift));
+            }
+        }
+        return drifts;
+    }
+
+    /**
+     * Writes all windows as CSV, one line per window and endpoint.
+     */
+    public void write(Path file) throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file))) {
+            out.println("window,start s,endpoint,count,errors,p50 ms,p99 ms");
+            for (Map.Entry<String, List<Window>> entry : windows.entrySet()) {
+                List<Window> series = entry.getValue();
+                for (int i = 0; i < series.size(); i++) {
+                    Window window = series.get(i);
+                    out.printf("%d,%d,\"%s\",%d,%d,%.3f,%.3f%n", i + 1, i * windowLength.getSeconds(),
+                            entry.getKey(), window.count, window.errors, window.p50, window.p99);
+                }
+            }
+        }
+    }
+
+    private String describeDrift(List<Window> series) {
+        if (series.size() < MIN_WINDOWS) {
+            return "";
+        }
+
+        List<String> drifts = new ArrayList<>();
+        double p99Z = mannKendallZ(series);
+        if (Math.abs(p99Z) > Z_CRITICAL) {
+            drifts.add(String.format("p99 %s by %.2f ms per hour", p99Z > 0 ? "rising" : "falling",
+                    Math.abs(senSlope(series) * windowsPerHour())));
+        }
+        double errorZ = cochranArmitageZ(series);
+        if (Math.abs(errorZ) > Z_CRITICAL) {
+            drifts.add(String.format("error rate %s", errorZ > 0 ? "rising" : "falling"));
+        }
+        return String.join(", ", drifts);
+    }
+
+    private double windowsPerHour() {
+        return Duration.ofHours(1).toMillis() / (double) windowLength.toMillis();
+    }
+
+    /**
+     * @return the z statistic of the Mann-Kendall test for a monotonic trend of the p99, with the variance
+     * corrected for ties; positive if it rises
+     */
+    private static double mannKendallZ(List<Window> series) {
+        int n = series.size();
+        long s = 0;
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                s += Integer.signum(Double.compare(series.get(j).p99, series.get(i).p99));
+            }
+        }
+
+        double[] sorted = series.stream().mapToDouble(window -> window.p99).sorted().toArray();
+        double variance = n * (n - 1d) * (2d * n + 5);
+        for (int i = 0; i < n; ) {
+            int ties = 1;
+            while (i + ties < n && sorted[i + ties] == sorted[i]) {
+                ties++;
+            }
+            variance -= ties * (ties - 1d) * (2d * ties + 5);
+            i += ties;
+        }
+        variance /= 18;
+
+        if (s == 0 || variance <= 0) {
+            return 0;
+        }
+        return (s > 0 ? s - 1 : s + 1) / Math.sqrt(variance);
+    }
+
+    /**
+     * @return the median of the slopes between all pairs of windows, in ms per window
+     */
+    private static double senSlope(List<Window> series) {
+        int n = series.size();
+        if (n < 2) {
+            return 0;
+        }
+
+        double[] slopes = new double[n * (n - 1) / 2];
+        int k = 0;
+        for (int i = 0; i < n - 1; i++) {
+            for (int j = i + 1; j < n; j++) {
+                slopes[k++] = (series.get(j).p99 - series.get(i).p99) / (j - i);
+            }
+        }
+        Arrays.sort(slopes);
+        return slopes.length % 2 == 1 ? slopes[slopes.length / 2] :
+                (slopes[slopes.length / 2 - 1] + slopes[slopes.length / 2]) / 2;
+    }
+
+    /**
+     * @return the z statistic of the Cochran-Armitage test for a trend of the error rate over the windows, with
+     * the window index as score; positive if it rises
+     */
+    private static double cochranArmitageZ(List<Window> series) {
+        double requests = 0;
+        double errors = 0;
+        for (Window window : series) {
+            requests += window.count;
+            errors += window.errors;
+        }
+        if (requests == 0) {
+            return 0;
+        }
+
+        double errorRate = errors / requests;
+        double t = 0;
+        double sumNScore = 0;
+        double sumNScoreSquared = 0;
+        for (int i = 0; i < series.size(); i++) {
+            Window window = series.get(i);
+            t += i * (window.errors - window.count * errorRate);
+            sumNScore += window.count * (double) i;
+            sumNScoreSquared += window.count * (double) i * i;
+        }
+
+        double variance = errorRate * (1 - errorRate) * (sumNScoreSquared - sumNScore * sumNScore / requests);
+        return variance > 0 ? t / Math.sqrt(variance) : 0;
+    }
+
+    private static class Window {
+        private final long count;
+        private final long errors;
+        private final double p50;
+        private final double p99;
+
+        Window(long count, long errors, double p50, double p99) {
+            this.count = count;
+            this.errors = errors;
+            this.p50 = p50;
+            this.p99 = p99;
+        }
+
+        private double getErrorRate() {
+            return count == 0 ? 0 : errors / (double) count;
+        }
+    }
+}
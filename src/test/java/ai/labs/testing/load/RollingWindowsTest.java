@@ -0,0 +1,46 @@
+package ai.labs.testing.load;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+@Test(groups = "standin")
+public class RollingWindowsTest {
+
+    public void flagsDrift() {
+        LoadMetrics metrics = new LoadMetrics();
+        RollingWindows windows = new RollingWindows(metrics, Duration.ofMinutes(1), "steady", "degrading");
+        Random random = new Random(42);
+        for (int window = 0; window < 30; window++) {
+            for (int i = 0; i < 1000; i++) {
+                long steady = TimeUnit.MILLISECONDS.toNanos(20 + random.nextInt(10));
+                metrics.endpoint("steady").record(0, steady, true);
+                // the slowest 2% and the error rate grow with every window
+                long slowdown = i % 50 == 0 ? window * 5 : 0;
+                long degrading = TimeUnit.MILLISECONDS.toNanos(20 + random.nextInt(10) + slowdown);
+                metrics.endpoint("degrading").record(0, degrading, random.nextInt(1000) >= window);
+            }
+            windows.closeWindow();
+        }
+
+        List<String> drifts = windows.findDrifts();
+        Assert.assertEquals(drifts.size(), 1, drifts.toString());
+        Assert.assertTrue(drifts.get(0).startsWith("degrading: p99 rising"), drifts.get(0));
+        Assert.assertTrue(drifts.get(0).endsWith("error rate rising"), drifts.get(0));
+    }
+
+    public void needsEnoughWindows() {
+        LoadMetrics metrics = new LoadMetrics();
+        RollingWindows windows = new RollingWindows(metrics, Duration.ofMinutes(1), "degrading");
+        for (int window = 0; window < 5; window++) {
+            metrics.endpoint("degrading").record(0, TimeUnit.MILLISECONDS.toNanos(20 + window * 100), window == 0);
+            windows.closeWindow();
+        }
+
+        Assert.assertTrue(windows.findDrifts().isEmpty());
+    }
+}
@@ -0,0 +1,98 @@
+package ai.labs.testing.load;
+
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Picks which of a number of targets (e.g. bots) the next conversation goes to. Targets are ranked by
+ * popularity, rank 0 first: zipf gives rank r a share proportional to 1 / (r + 1)^exponent, hotset gives the
+ * first hotFraction of the targets hotShare of all conversations, evenly, and the others the rest, uniform
+ * gives all the same share.
+ */
+public class TrafficDistribution {
+    private final String name;
+    private final double[] cumulativeShares;
+
+    private TrafficDistribution(String name, double[] weights) {
+        this.name = name;
+        cumulativeShares = new double[weights.length];
+        double total = Arrays.stream(weights).sum();
+        double cumulative = 0;
+        for (int i = 0; i < weights.length; i++) {
+            cumulative += weights[i] / total;
+            cumulativeShares[i] = cumulative;
+        }
+        cumulativeShares[weights.length - 1] = 1;
+    }
+
+    /**
+     * Reads -Deddi.load.distribution (zipf, hotset or uniform), -Deddi.load.zipfExponent,
+     * -Deddi.load.hotFraction and -Deddi.load.hotShare.
+     */
+    public static TrafficDistribution fromSystemProperties(int targets) {
+        final Properties props = System.getProperties();
+        String distribution = props.getProperty("eddi.load.distribution", "zipf");
+        switch (distribution) {
+            case "zipf":
+                return zipf(targets, Double.parseDouble(props.getProperty("eddi.load.zipfExponent", "1.0")));
+            case "hotset":
+                return hotSet(targets, Double.parseDouble(props.getProperty("eddi.load.hotFraction", "0.1")),
+                        Double.parseDouble(props.getProperty("eddi.load.hotShare", "0.9")));
+            case "uniform":
+                return uniform(targets);
+            default:
+                throw new IllegalArgumentException("Unknown traffic distribution: " + distribution);
+        }
+    }
+
+    public static TrafficDistribution zipf(int targets, double exponent) {
+        double[] weights = new double[targets];
+        for (int i = 0; i < targets; i++) {
+            weights[i] = 1 / Math.pow(i + 1, exponent);
+        }
+        return new TrafficDistribution(String.format("zipf, exponent %.2f", exponent), weights);
+    }
+
+    public static TrafficDistribution hotSet(int targets, double hotFraction, double hotShare) {
+        int hot = Math.max(1, Math.min(targets, (int) Math.round(targets * hotFraction)));
+        double[] weights = new double[targets];
+        for (int i = 0; i < targets; i++) {
+            weights[i] = i < hot || hot == targets ? hotShare / hot : (1 - hotShare) / (targets - hot);
+        }
+        return new TrafficDistribution(String.format("hot set, %d of %d get %.0f%%", hot, targets, hotShare * 100),
+                weights);
+    }
+
+    public static TrafficDistribution uniform(int targets) {
+        double[] weights = new double[targets];
+        Arrays.fill(weights, 1);
+        return new TrafficDistribution("uniform", weights);
+    }
+
+    /**
+     * @return e.g. "zipf, exponent 1.00"
+     */
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return cumulativeShares.length;
+    }
+
+    /**
+     * @return the rank of the target the next conversation goes to
+     */
+    public int next() {
+        int index = Arrays.binarySearch(cumulativeShares, ThreadLocalRandom.current().nextDouble());
+        return index >= 0 ? index : -index - 1;
+    }
+
+    /**
+     * @return the expected share of all conversations of the given rank, between 0 and 1
+     */
+    public double share(int rank) {
+        return rank == 0 ? cumulativeShares[0] : cumulativeShares[rank] - cumulativeShares[rank - 1];
+    }
+}
@@ -0,0 +1,66 @@
+package ai.labs.testing.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Puts the latency of one endpoint under several variants (of a bot, a configuration, ...) side by side,
+ * with the p50 and p99 differences to a reference variant added, by default the first one.
+ */
+public class VariantComparison {
+    private static final String HEADER_FORMAT = "%-{w}s %10s %8s %10s %10s %10s %10s  %s";
+    private static final String ROW_FORMAT = "%-{w}s %10d %8d %10.2f %+10.2f %10.2f %+10.2f  %s";
+    private static final int MIN_VARIANT_WIDTH = 48;
+    private static final double MICROS_PER_MILLI = 1000d;
+
+    private final String title;
+    private final Map<String, Histogram> histograms = new LinkedHashMap<>();
+    private final Map<String, Long> errors = new LinkedHashMap<>();
+    private final Map<String, String> references = new LinkedHashMap<>();
+
+    public VariantComparison(String title) {
+        this.title = title;
+    }
+
+    public void add(String variant, EndpointMetrics endpoint) {
+        add(variant, endpoint, null);
+    }
+
+    /**
+     * @param reference a variant added before, the first one if null
+     */
+    public void add(String variant, EndpointMetrics endpoint, String reference) {
+        histograms.put(variant, endpoint.getHistogram());
+        errors.put(variant, endpoint.getErrors());
+        references.put(variant, reference != null ? reference : histograms.keySet().iterator().next());
+    }
+
+    public String format() {
+        int width = MIN_VARIANT_WIDTH;
+        for (String variant : histograms.keySet()) {
+            width = Math.max(width, variant.length());
+        }
+        String headerFormat = HEADER_FORMAT.replace("{w}", String.valueOf(width));
+        String rowFormat = ROW_FORMAT.replace("{w}", String.valueOf(width));
+
+        StringBuilder comparison = new StringBuilder(title);
+        comparison.append(String.format("%n" + headerFormat,
+                "variant", "count", "errors", "p50 ms", "+/-p50 ms", "p99 ms", "+/-p99 ms", "compared to"));
+        for (String variant : histograms.keySet()) {
+            Histogram histogram = histograms.get(variant);
+            String reference = references.get(variant);
+            Histogram referenceHistogram = histograms.get(reference);
+            comparison.append(String.format("%n" + rowFormat,
+                    variant, histogram.getTotalCount(), errors.get(variant),
+                    histogram.getValueAtPercentile(50) / MICROS_PER_MILLI,
+                    (histogram.getValueAtPercentile(50) - referenceHistogram.getValueAtPercentile(50)) / MICROS_PER_MILLI,
+                    histogram.getValueAtPercentile(99) / MICROS_PER_MILLI,
+                    (histogram.getValueAtPercentile(99) - referenceHistogram.getValueAtPercentile(99)) / MICROS_PER_MILLI,
+                    reference.equals(variant) ? "" : reference));
+        }
+
+        return comparison.toString();
+    }
+}
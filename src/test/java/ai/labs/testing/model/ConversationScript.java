@@ -0,0 +1,27 @@
+package ai.labs.testing.model;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A scripted multi-turn conversation, as played by the virtual users of the load scenarios.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class ConversationScript {
+    private String name;
+    private List<String> inputs = new ArrayList<>();
+    /**
+     * sent along with every input if not empty, the inputs go as text/plain otherwise
+     */
+    private Map<String, InputData.Context> context = new HashMap<>();
+    private boolean returnDetailed = false;
+    private boolean returnCurrentStepOnly = true;
+}
@@ -0,0 +1,533 @@
+package ai.labs.testing.standin;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.UriUtilities;
+import ai.labs.testing.transport.Gzip;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * An in-process stand-in for the parts of the EDDI REST API the tests and load scenarios use: the stores
+ * (versioned CRUD with location headers), deployment, bots/unrestricted conversations, bot triggers and
+ * managedbots, /backup/import and /parser. Every request is delayed by the {@link LatencyProfile} of its
+ * route ({@value #ROUTE_STORE}, {@value #ROUTE_DEPLOYMENT}, {@value #ROUTE_CONVERSATION},
+ * {@value #ROUTE_MANAGED_BOTS}, {@value #ROUTE_IMPORT} or {@value #ROUTE_PARSER}), so that the load drivers,
+ * histograms and reports can be checked against known service times without a real EDDI.
+ * <p>
+ * The bots don't run any behavior rules (see {@link StandInConversation}), so the stand-in is no substitute for
+ * EDDI in the functional tests.
+ */
+@Slf4j
+public class EddiStandInServer {
+    public static final String ROUTE_STORE = "store";
+    public static final String ROUTE_DEPLOYMENT = "deployment";
+    public static final String ROUTE_CONVERSATION = "conversation";
+    public static final String ROUTE_MANAGED_BOTS = "managedbots";
+    public static final String ROUTE_IMPORT = "import";
+    public static final String ROUTE_PARSER = "parser";
+    private static final String[] ROUTES =
+            {ROUTE_STORE, ROUTE_DEPLOYMENT, ROUTE_CONVERSATION, ROUTE_MANAGED_BOTS, ROUTE_IMPORT, ROUTE_PARSER};
+    private static final String BOT_STORE = "botstore/bots";
+    private static final String PARSER_STORE = "parserstore/parsers";
+    private static final String REGULAR_DICTIONARY_STORE = "regulardictionarystore/regulardictionaries";
+    private static final String CONVERSATION_LOCATION = "eddi://ai.labs.conversation/conversationstore/conversations/";
+    private static final String JSON = "application/json";
+    private static final String TEXT = "text/plain";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final LatencyProfile defaultLatency;
+    private final Map<String, LatencyProfile> routeLatencies = new ConcurrentHashMap<>();
+    private final long deploymentTimeNanos;
+
+    private final ResourceStore resourceStore = new ResourceStore();
+    private final Map<String, Long> deploymentReadyTimes = new ConcurrentHashMap<>();
+    private final Map<String, Integer> deployedVersions = new ConcurrentHashMap<>();
+    private final Map<String, StandInConversation> conversations = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> userInputCounts = new ConcurrentHashMap<>();
+    private final Map<String, JsonNode> botTriggers = new ConcurrentHashMap<>();
+    private final Map<String, String> managedConversations = new ConcurrentHashMap<>();
+    private final Map<String, StandInParser> parsers = new ConcurrentHashMap<>();
+
+    /**
+     * @param port           0 picks a free port
+     * @param deploymentTime how long a deployment is IN_PROGRESS before the bot is READY
+     */
+    public EddiStandInServer(int port, LatencyProfile defaultLatency, Duration deploymentTime) throws IOException {
+        this.defaultLatency = defaultLatency;
+        this.deploymentTimeNanos = deploymentTime.toNanos();
+        // without TCP_NODELAY, Nagle plus delayed ACKs add up to 40 ms to responses written in two parts
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+        this.server = HttpServer.create(new InetSocketAddress("localhost", port), 0);
+        this.executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("eddi-stand-in-", 1).factory());
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+    }
+
+    /**
+     * Reads -Deddi.standin.port (default 0), -Deddi.standin.latency (default none, see
+     * {@link LatencyProfile#parse(String)}), -Deddi.standin.latency.&lt;route&gt; and
+     * -Deddi.standin.deploymentTime (default 100ms).
+     */
+    public static EddiStandInServer fromSystemProperties() throws IOException {
+        final Properties props = System.getProperties();
+        EddiStandInServer server = new EddiStandInServer(
+                Integer.parseInt(props.getProperty("eddi.standin.port", "0")),
+                LatencyProfile.parse(props.getProperty("eddi.standin.latency", "none")),
+                LatencyProfile.parseDuration(props.getProperty("eddi.standin.deploymentTime", "100ms")));
+        for (String route : ROUTES) {
+            String latency = props.getProperty("eddi.standin.latency." + route);
+            if (latency != null) {
+                server.setLatency(route, LatencyProfile.parse(latency));
+            }
+        }
+
+        return server;
+    }
+
+    public void setLatency(String route, LatencyProfile latencyProfile) {
+        routeLatencies.put(route, latencyProfile);
+    }
+
+    public EddiStandInServer start() {
+        server.start();
+        log.info(String.format("EDDI stand-in listening on %s", getBaseUri()));
+        return this;
+    }
+
+    public void stop() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * @return e.g. http://localhost, without the port
+     */
+    public String getBaseUri() {
+        return "http://" + server.getAddress().getHostString();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            String[] path = exchange.getRequestURI().getRawPath().replaceAll("^/+|/+$", "").split("/");
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            byte[] body = exchange.getRequestBody().readAllBytes();
+            if (Gzip.isAccepted(exchange.getRequestHeaders().getFirst("Content-Encoding"))) {
+                body = Gzip.decompress(body);
+            }
+            String method = exchange.getRequestMethod();
+
+            if (path.length >= 3 && path[0].equals("administration")) {
+                handleDeployment(exchange, path, query);
+            } else if (path.length >= 3 && path[0].equals("bots")) {
+                handleConversation(exchange, method, path, query, body);
+            } else if (path.length >= 3 && path[0].equals("managedbots")) {
+                handleManagedBot(exchange, path, query, body);
+            } else if (path.length == 2 && path[0].equals("backup") && path[1].equals("import")) {
+                handleImport(exchange, body);
+            } else if (path.length == 2 && path[0].equals("parser")) {
+                handleParser(exchange, path[1], query, body);
+            } else if (path.length >= 2 && path[0].equals("bottriggerstore")) {
+                handleBotTrigger(exchange, method, path, body);
+            } else if (path.length >= 2 && path[0].endsWith("store")) {
+                handleStore(exchange, method, path, query, body);
+            } else {
+                respond(exchange, ROUTE_STORE, 404);
+            }
+        } catch (RuntimeException e) {
+            log.error("stand-in request failed", e);
+            respondWithText(exchange, ROUTE_STORE, 500, e.toString());
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleStore(HttpExchange exchange, String method, String[] path, Map<String, String> query,
+                             byte[] body) throws IOException {
+        String storePath = path[0] + "/" + path[1];
+        if (path.length == 2) {
+            if (!method.equals("POST")) {
+                respond(exchange, ROUTE_STORE, 405);
+                return;
+            }
+            String id = resourceStore.create(storePath, body);
+            respondWithLocation(exchange, ROUTE_STORE, 201, location(storePath, id, 1));
+            return;
+        }
+
+        String id = path[2];
+        int version = Integer.parseInt(query.getOrDefault("version", "1"));
+        switch (method) {
+            case "GET":
+            case "HEAD":
+                byte[] document = resourceStore.read(storePath, id, version);
+                respond(exchange, ROUTE_STORE, document != null ? 200 : 404, JSON, document, null);
+                break;
+            case "PUT":
+            case "PATCH":
+                int newVersion = resourceStore.update(storePath, id, version, body);
+                if (newVersion > 0) {
+                    respondWithLocation(exchange, ROUTE_STORE, 200, location(storePath, id, newVersion));
+                } else {
+                    respond(exchange, ROUTE_STORE, newVersion == -1 ? 404 : 409);
+                }
+                break;
+            case "DELETE":
+                respond(exchange, ROUTE_STORE, resourceStore.delete(storePath, id) ? 200 : 404);
+                break;
+            default:
+                respond(exchange, ROUTE_STORE, 405);
+        }
+    }
+
+    private void handleDeployment(HttpExchange exchange, String[] path, Map<String, String> query)
+            throws IOException {
+        String operation = path[path.length - 2];
+        String botId = path[path.length - 1];
+        int version = Integer.parseInt(query.getOrDefault("version", "1"));
+        String key = botId + ":" + version;
+
+        if (operation.equals("deploy")) {
+            if (resourceStore.read(BOT_STORE, botId, version) == null) {
+                respond(exchange, ROUTE_DEPLOYMENT, 404);
+                return;
+            }
+            deploymentReadyTimes.putIfAbsent(key, System.nanoTime() + deploymentTimeNanos);
+            deployedVersions.merge(botId, version, Math::max);
+            respond(exchange, ROUTE_DEPLOYMENT, 202);
+        } else if (operation.equals("deploymentstatus")) {
+            Long readyTime = deploymentReadyTimes.get(key);
+            String status = readyTime == null ? "NOT_FOUND" : System.nanoTime() >= readyTime ? "READY" : "IN_PROGRESS";
+            respondWithText(exchange, ROUTE_DEPLOYMENT, 200, status);
+        } else if (operation.equals("undeploy")) {
+            deploymentReadyTimes.remove(key);
+            deployedVersions.remove(botId, version);
+            respond(exchange, ROUTE_DEPLOYMENT, 202);
+        } else {
+            respond(exchange, ROUTE_DEPLOYMENT, 404);
+        }
+    }
+
+    private void handleConversation(HttpExchange exchange, String method, String[] path, Map<String, String> query,
+                                    byte[] body) throws IOException {
+        String botId = path[2];
+        if (path.length == 3) {
+            StandInConversation conversation = startConversation(botId, query.getOrDefault("userId", "anonymous"));
+            if (conversation == null) {
+                respond(exchange, ROUTE_CONVERSATION, 404);
+                return;
+            }
+            String conversationId = UUID.randomUUID().toString();
+            conversations.put(conversationId, conversation);
+            respondWithLocation(exchange, ROUTE_CONVERSATION, 201, CONVERSATION_LOCATION + conversationId);
+            return;
+        }
+
+        StandInConversation conversation = conversations.get(path[3]);
+        if (conversation == null || !conversation.getBotId().equals(botId)) {
+            respond(exchange, ROUTE_CONVERSATION, 404);
+            return;
+        }
+
+        boolean returnDetailed = Boolean.parseBoolean(query.getOrDefault("returnDetailed", "false"));
+        if (method.equals("GET")) {
+            respondWithConversation(exchange, ROUTE_CONVERSATION, conversation, returnDetailed, false);
+        } else if (path.length == 5 && path[4].equals("endConversation")) {
+            conversation.end();
+            respond(exchange, ROUTE_CONVERSATION, 200);
+        } else {
+            say(exchange, ROUTE_CONVERSATION, conversation, exchange.getRequestHeaders().getFirst("Content-Type"),
+                    body, returnDetailed, Boolean.parseBoolean(query.getOrDefault("returnCurrentStepOnly", "true")));
+        }
+    }
+
+    private void handleBotTrigger(HttpExchange exchange, String method, String[] path, byte[] body)
+            throws IOException {
+        if (path.length != 3) {
+            respond(exchange, ROUTE_STORE, 404);
+            return;
+        }
+
+        String intent = URLDecoder.decode(path[2], StandardCharsets.UTF_8);
+        switch (method) {
+            case "POST":
+            case "PUT":
+                botTriggers.put(intent, objectMapper.readTree(body));
+                respond(exchange, ROUTE_STORE, 200);
+                break;
+            case "GET":
+                JsonNode trigger = botTriggers.get(intent);
+                respond(exchange, ROUTE_STORE, trigger != null ? 200 : 404, JSON,
+                        trigger != null ? objectMapper.writeValueAsBytes(trigger) : null, null);
+                break;
+            case "DELETE":
+                respond(exchange, ROUTE_STORE, botTriggers.remove(intent) != null ? 200 : 404);
+                break;
+            default:
+                respond(exchange, ROUTE_STORE, 405);
+        }
+    }
+
+    private void handleManagedBot(HttpExchange exchange, String[] path, Map<String, String> query, byte[] body)
+            throws IOException {
+        String intent = URLDecoder.decode(path[1], StandardCharsets.UTF_8);
+        String userId = URLDecoder.decode(path[2], StandardCharsets.UTF_8);
+        String key = intent + "\n" + userId;
+
+        if (path.length == 4 && path[3].equals("endConversation")) {
+            String conversationId = managedConversations.remove(key);
+            if (conversationId != null) {
+                conversations.get(conversationId).end();
+            }
+            respond(exchange, ROUTE_MANAGED_BOTS, 200);
+            return;
+        }
+
+        JsonNode trigger = botTriggers.get(intent);
+        if (trigger == null || trigger.path("botDeployments").size() == 0) {
+            respondWithText(exchange, ROUTE_MANAGED_BOTS, 404, "no bot trigger for intent " + intent);
+            return;
+        }
+
+        String botId = trigger.path("botDeployments").get(0).path("botId").asText();
+        String conversationId = managedConversations.compute(key, (k, current) -> {
+            if (current != null && !conversations.get(current).isEnded()) {
+                return current;
+            }
+            StandInConversation conversation = startConversation(botId, userId);
+            if (conversation == null) {
+                return null;
+            }
+            String newConversationId = UUID.randomUUID().toString();
+            conversations.put(newConversationId, conversation);
+            return newConversationId;
+        });
+
+        if (conversationId == null) {
+            respondWithText(exchange, ROUTE_MANAGED_BOTS, 404, "bot " + botId + " isn't deployed");
+            return;
+        }
+
+        say(exchange, ROUTE_MANAGED_BOTS, conversations.get(conversationId),
+                exchange.getRequestHeaders().getFirst("Content-Type"), body,
+                Boolean.parseBoolean(query.getOrDefault("returnDetailed", "false")),
+                Boolean.parseBoolean(query.getOrDefault("returnCurrentStepOnly", "false")));
+    }
+
+    private void handleImport(HttpExchange exchange, byte[] body) throws IOException {
+        byte[] botDocument = null;
+        try (ZipInputStream zip = new ZipInputStream(new ByteArrayInputStream(body))) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                byte[] content = zip.readAllBytes();
+                if (entry.getName().endsWith(".bot.json")) {
+                    botDocument = content;
+                }
+            }
+        }
+
+        if (botDocument == null) {
+            respondWithText(exchange, ROUTE_IMPORT, 400, "zip doesn't contain a *.bot.json");
+            return;
+        }
+
+        String id = resourceStore.create(BOT_STORE, botDocument);
+        respondWithLocation(exchange, ROUTE_IMPORT, 200, location(BOT_STORE, id, 1));
+    }
+
+    private void handleParser(HttpExchange exchange, String parserId, Map<String, String> query, byte[] body)
+            throws IOException {
+        int version = Integer.parseInt(query.getOrDefault("version", "1"));
+        StandInParser parser;
+        try {
+            parser = parsers.computeIfAbsent(parserId + ":" + version, key -> createParser(parserId, version));
+        } catch (IllegalArgumentException e) {
+            respondWithText(exchange, ROUTE_PARSER, 404, e.getMessage());
+            return;
+        }
+
+        List<Map<String, String>> solutions = new ArrayList<>();
+        for (String expressions : parser.parse(toInput(exchange.getRequestHeaders().getFirst("Content-Type"), body))) {
+            Map<String, String> solution = new HashMap<>();
+            solution.put("expressions", expressions);
+            solutions.add(solution);
+        }
+        respond(exchange, ROUTE_PARSER, 200, JSON, objectMapper.writeValueAsBytes(solutions), null);
+    }
+
+    private StandInParser createParser(String parserId, int version) {
+        byte[] document = resourceStore.read(PARSER_STORE, parserId, version);
+        if (document == null) {
+            throw new IllegalArgumentException(String.format("no parser (id=%s,version=%s)", parserId, version));
+        }
+
+        try {
+            JsonNode extensions = objectMapper.readTree(document).path("extensions");
+            List<JsonNode> dictionaries = new ArrayList<>();
+            for (JsonNode dictionary : extensions.path("dictionaries")) {
+                String uri = dictionary.path("config").path("uri").asText(null);
+                if (dictionary.path("type").asText().endsWith(".regular") && uri != null) {
+                    ResourceId resourceId = UriUtilities.extractResourceId(uri);
+                    byte[] regularDictionary = resourceStore.read(REGULAR_DICTIONARY_STORE,
+                            resourceId.getId(), resourceId.getVersion());
+                    if (regularDictionary != null) {
+                        dictionaries.add(objectMapper.readTree(regularDictionary));
+                    }
+                }
+            }
+
+            int levenshteinDistance = 0;
+            for (JsonNode correction : extensions.path("corrections")) {
+                if (correction.path("type").asText().endsWith(".levenshtein")) {
+                    levenshteinDistance = correction.path("config").path("distance").asInt(2);
+                }
+            }
+
+            return new StandInParser(dictionaries, levenshteinDistance);
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return a new conversation with the latest deployed version of the bot, null if there is none
+     */
+    private StandInConversation startConversation(String botId, String userId) {
+        Integer version = deployedVersions.get(botId);
+        if (version == null) {
+            return null;
+        }
+
+        AtomicInteger userInputCount = userInputCounts.computeIfAbsent(userId, id -> new AtomicInteger());
+        return new StandInConversation(botId, version, userId, userInputCount);
+    }
+
+    private void say(HttpExchange exchange, String route, StandInConversation conversation, String contentType,
+                     byte[] body, boolean returnDetailed, boolean returnCurrentStepOnly) throws IOException {
+        if (conversation.isEnded()) {
+            respondWithText(exchange, route, 410, "Conversation has ended!");
+            return;
+        }
+
+        conversation.say(toInput(contentType, body));
+        respondWithConversation(exchange, route, conversation, returnDetailed, returnCurrentStepOnly);
+    }
+
+    private void respondWithConversation(HttpExchange exchange, String route, StandInConversation conversation,
+                                         boolean returnDetailed, boolean returnCurrentStepOnly) throws IOException {
+        byte[] json = objectMapper.writeValueAsBytes(
+                conversation.toJson(objectMapper, returnDetailed, returnCurrentStepOnly));
+        respond(exchange, route, 200, JSON, json, null);
+    }
+
+    /**
+     * Accepts plain text, a JSON string or an InputData object ({"input": "..."}).
+     */
+    private String toInput(String contentType, byte[] body) throws IOException {
+        String text = new String(body, StandardCharsets.UTF_8).trim();
+        if (contentType != null && contentType.contains("json")) {
+            if (text.startsWith("{")) {
+                return objectMapper.readTree(text).path("input").asText("");
+            } else if (text.startsWith("\"")) {
+                return objectMapper.readTree(text).asText();
+            }
+        }
+
+        return text;
+    }
+
+    private void respond(HttpExchange exchange, String route, int statusCode) throws IOException {
+        respond(exchange, route, statusCode, null, null, null);
+    }
+
+    private void respondWithLocation(HttpExchange exchange, String route, int statusCode, String location)
+            throws IOException {
+        respond(exchange, route, statusCode, null, null, location);
+    }
+
+    private void respondWithText(HttpExchange exchange, String route, int statusCode, String text) throws IOException {
+        respond(exchange, route, statusCode, TEXT, text.getBytes(StandardCharsets.UTF_8), null);
+    }
+
+    private void respond(HttpExchange exchange, String route, int statusCode, String contentType, byte[] body,
+                         String location) throws IOException {
+        long delayNanos = routeLatencies.getOrDefault(route, defaultLatency).nextDelayNanos();
+        if (delayNanos > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(delayNanos);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+
+        if (contentType != null) {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+        }
+        if (location != null) {
+            exchange.getResponseHeaders().set("location", location);
+        }
+
+        boolean hasBody = body != null && body.length > 0 && !exchange.getRequestMethod().equals("HEAD");
+        if (hasBody && Gzip.isAccepted(exchange.getRequestHeaders().getFirst("Accept-Encoding"))) {
+            body = Gzip.compress(body, 0, body.length);
+            exchange.getResponseHeaders().set("Content-Encoding", Gzip.ENCODING);
+        }
+        exchange.sendResponseHeaders(statusCode, hasBody ? body.length : -1);
+        if (hasBody) {
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        }
+    }
+
+    private static String location(String storePath, String id, int version) {
+        String store = storePath.substring(0, storePath.indexOf('/'));
+        String type = "ai.labs." + store.substring(0, store.length() - "store".length());
+        return String.format("eddi://%s/%s/%s?version=%d", type, storePath, id, version);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery != null) {
+            for (String parameter : rawQuery.split("&")) {
+                int separator = parameter.indexOf('=');
+                if (separator > 0) {
+                    query.put(URLDecoder.decode(parameter.substring(0, separator), StandardCharsets.UTF_8),
+                            URLDecoder.decode(parameter.substring(separator + 1), StandardCharsets.UTF_8));
+                }
+            }
+        }
+
+        return query;
+    }
+}
@@ -0,0 +1,202 @@
+package ai.labs.testing.standin;
+
+import ai.labs.testing.ResourceId;
+import ai.labs.testing.UriUtilities;
+import ai.labs.testing.load.EndpointMetrics;
+import ai.labs.testing.load.LoadConfiguration;
+import ai.labs.testing.load.LoadMetrics;
+import ai.labs.testing.load.OpenLoopDriver;
+import ai.labs.testing.transport.BufferPool;
+import ai.labs.testing.transport.HttpClientTransport;
+import ai.labs.testing.transport.TrafficStatistics;
+import ai.labs.testing.transport.Transport;
+import ai.labs.testing.transport.TransportRequest;
+import io.restassured.http.ContentType;
+import io.restassured.response.Response;
+import org.HdrHistogram.Histogram;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+import static org.hamcrest.Matchers.endsWith;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+
+/**
+ * Runs the harness against the in-process stand-in, so it needs no EDDI.
+ */
+@Test(groups = "standin")
+public class EddiStandInServerTest {
+    private static final String JSON = ContentType.JSON.toString();
+    private static final String DICTIONARY_PATH = "regulardictionarystore/regulardictionaries";
+    private static final Duration SERVICE_TIME = Duration.ofMillis(20);
+
+    private EddiStandInServer server;
+    private Transport transport;
+
+    @BeforeClass(groups = "standin")
+    public void setup() throws IOException {
+        server = new EddiStandInServer(0, LatencyProfile.none(), Duration.ofMillis(50)).start();
+        server.setLatency(EddiStandInServer.ROUTE_CONVERSATION, LatencyProfile.fixed(SERVICE_TIME));
+        transport = new HttpClientTransport(server.getBaseUri() + ":" + server.getPort(),
+                HttpClient.Version.HTTP_1_1, 256);
+    }
+
+    @AfterClass(groups = "standin")
+    public void tearDown() {
+        server.stop();
+    }
+
+    public void versionedCrud() {
+        Response created = transport.send(TransportRequest.post(DICTIONARY_PATH, JSON, "{\"words\":[]}"));
+        created.then().statusCode(201).header("location", endsWith("?version=1"));
+        ResourceId resourceId = UriUtilities.extractResourceId(URI.create(created.getHeader("location")));
+        String path = DICTIONARY_PATH + "/" + resourceId.getId();
+
+        transport.send(TransportRequest.put(path + "?version=1", JSON, "{\"words\":[{\"word\":\"hi\"}]}")).
+                then().statusCode(200).header("location", endsWith("?version=2"));
+        transport.send(TransportRequest.put(path + "?version=1", JSON, "{}")).then().statusCode(409);
+        transport.send(TransportRequest.get(path + "?version=1")).then().body("words.size()", equalTo(0));
+        transport.send(TransportRequest.get(path + "?version=2")).then().body("words[0].word", equalTo("hi"));
+        Assert.assertEquals(transport.send(TransportRequest.head(path + "?version=2")).getStatusCode(), 200);
+
+        transport.send(TransportRequest.delete(path + "?version=2")).then().statusCode(200);
+        transport.send(TransportRequest.get(path + "?version=2")).then().statusCode(404);
+    }
+
+    public void importDeployAndConverse() throws Exception {
+        byte[] zip = Files.readAllBytes(Paths.get(ClassLoader.getSystemResource("tests/useCases/weather_bot_v1.zip").toURI()));
+        Response imported = transport.send(new TransportRequest("POST", "backup/import", "application/zip", null, zip));
+        ResourceId bot = UriUtilities.extractResourceId(URI.create(imported.getHeader("location")));
+
+        String status = deploy(bot);
+        Assert.assertEquals(status, "READY");
+
+        Response created = transport.send(TransportRequest.post("bots/unrestricted/" + bot.getId() + "?userId=standInUser"));
+        ResourceId conversation = UriUtilities.extractResourceId(URI.create(created.getHeader("location")));
+        String conversationPath = "bots/unrestricted/" + bot.getId() + "/" + conversation.getId();
+
+        transport.send(TransportRequest.post(conversationPath + "?returnCurrentStepOnly=true", ContentType.TEXT.toString(), "hello")).
+                then().statusCode(200).
+                body("conversationSteps[0].conversationStep[0].value", equalTo("hello")).
+                body("conversationProperties.count.valueInt", equalTo(1));
+        BufferPool.PooledBuffer inputData = BufferPool.getDefault().acquire();
+        inputData.write("{\"input\":\"weather\",\"context\":{}}".getBytes(StandardCharsets.UTF_8));
+        transport.send(TransportRequest.post(conversationPath, JSON, inputData)).
+                then().statusCode(200).body("conversationSteps[0].conversationStep[0].value", equalTo("weather"));
+        transport.send(TransportRequest.post(conversationPath, ContentType.TEXT.toString(), "bye")).
+                then().body("conversationState", equalTo("ENDED"));
+        transport.send(TransportRequest.post(conversationPath, ContentType.TEXT.toString(), "hello")).
+                then().statusCode(410);
+    }
+
+    public void streamedImport() throws Exception {
+        byte[] zip = Files.readAllBytes(Paths.get(ClassLoader.getSystemResource("tests/useCases/weather_bot_v1.zip").toURI()));
+        Transport streamingTransport = new HttpClientTransport(server.getBaseUri() + ":" + server.getPort(),
+                HttpClient.Version.HTTP_1_1, 16);
+
+        Response imported = streamingTransport.send(TransportRequest.post("backup/import", "application/zip",
+                () -> new ByteArrayInputStream(zip)));
+
+        Assert.assertEquals(imported.getStatusCode(), 200);
+        Assert.assertNotNull(UriUtilities.extractResourceId(URI.create(imported.getHeader("location"))));
+        Assert.assertEquals(streamingTransport.getTrafficStatistics().getWireBytes(), zip.length);
+    }
+
+    public void parser() {
+        String dictionary = "{\"words\":[{\"word\":\"hello\",\"expressions\":\"greeting(hello)\"}]," +
+                "\"phrases\":[{\"phrase\":\"good afternoon\",\"expressions\":\"greeting(good_afternoon)\"}]}";
+        ResourceId dictionaryId = UriUtilities.extractResourceId(URI.create(
+                transport.send(TransportRequest.post(DICTIONARY_PATH, JSON, dictionary)).getHeader("location")));
+        String parserConfiguration = String.format("{\"extensions\":{\"dictionaries\":[{" +
+                        "\"type\":\"eddi://ai.labs.parser.dictionaries.regular\",\"config\":{\"uri\":" +
+                        "\"eddi://ai.labs.regulardictionary/%s/%s?version=%s\"}}],\"corrections\":[{" +
+                        "\"type\":\"eddi://ai.labs.parser.corrections.levenshtein\",\"config\":{\"distance\":\"2\"}}]}}",
+                DICTIONARY_PATH, dictionaryId.getId(), dictionaryId.getVersion());
+        ResourceId parserId = UriUtilities.extractResourceId(URI.create(
+                transport.send(TransportRequest.post("parserstore/parsers", JSON, parserConfiguration)).getHeader("location")));
+        String parserPath = "parser/" + parserId.getId() + "?version=" + parserId.getVersion();
+
+        transport.send(TransportRequest.post(parserPath, JSON, "hello")).
+                then().statusCode(200).body("expressions", hasItem("greeting(hello)"));
+        transport.send(TransportRequest.post(parserPath, JSON, "good afternoon")).
+                then().body("expressions", hasItem("greeting(good_afternoon)"));
+        transport.send(TransportRequest.post(parserPath, JSON, "helo")).
+                then().body("expressions", hasItem("greeting(hello)"));
+    }
+
+    public void gzipRoundTrip() {
+        StringBuilder dictionary = new StringBuilder("{\"words\":[");
+        for (int i = 0; i < 500; i++) {
+            dictionary.append(i == 0 ? "" : ",").append(String.format("{\"word\":\"word%d\",\"expressions\":\"word(%d)\"}", i, i));
+        }
+        String json = dictionary.append("]}").toString();
+        Transport gzipTransport = new HttpClientTransport(server.getBaseUri() + ":" + server.getPort(),
+                HttpClient.Version.HTTP_1_1, 16, true, 1024);
+
+        String location = gzipTransport.send(TransportRequest.post(DICTIONARY_PATH, JSON, json)).getHeader("location");
+        ResourceId dictionaryId = UriUtilities.extractResourceId(URI.create(location));
+        String read = gzipTransport.send(TransportRequest.get(
+                DICTIONARY_PATH + "/" + dictionaryId.getId() + "?version=" + dictionaryId.getVersion())).asString();
+
+        Assert.assertEquals(read, json);
+        TrafficStatistics statistics = gzipTransport.getTrafficStatistics();
+        Assert.assertEquals(statistics.getBytes(), 2L * json.length());
+        Assert.assertTrue(statistics.getWireBytes() < statistics.getBytes() / 2, "not compressed: " + statistics.getWireBytes());
+        String traffic = statistics.format();
+        Assert.assertTrue(traffic.contains("POST " + DICTIONARY_PATH), traffic);
+        Assert.assertTrue(traffic.contains("GET " + DICTIONARY_PATH + "/{id}?version={value}"), traffic);
+    }
+
+    public void openLoopMeasuresTheServiceTime() throws Exception {
+        ResourceId bot = UriUtilities.extractResourceId(URI.create(
+                transport.send(TransportRequest.post("botstore/bots", JSON, "{\"packages\":[]}")).getHeader("location")));
+        deploy(bot);
+        ResourceId conversation = UriUtilities.extractResourceId(URI.create(transport.send(
+                TransportRequest.post("bots/unrestricted/" + bot.getId() + "?userId=openLoopUser")).getHeader("location")));
+        TransportRequest say = TransportRequest.post("bots/unrestricted/" + bot.getId() + "/" + conversation.getId(),
+                ContentType.TEXT.toString(), "hello");
+
+        LoadConfiguration config = new LoadConfiguration();
+        config.setArrivalRate(200);
+        config.setWarmup(Duration.ofSeconds(2));
+        config.setDuration(Duration.ofSeconds(2));
+        LoadMetrics metrics = new LoadMetrics();
+        new OpenLoopDriver(config).run(metrics, intendedStart ->
+                metrics.time("say", intendedStart, () -> transport.send(say), response -> response.getStatusCode() == 200));
+
+        EndpointMetrics endpoint = metrics.endpoint("say");
+        Histogram histogram = endpoint.getHistogram();
+        Assert.assertEquals(endpoint.getErrors(), 0);
+        Assert.assertEquals(histogram.getTotalCount(), 400, 80);
+        Assert.assertTrue(histogram.getValueAtPercentile(50) >= SERVICE_TIME.toNanos() / 1000,
+                "median below the service time: " + histogram.getValueAtPercentile(50));
+        Assert.assertTrue(histogram.getValueAtPercentile(50) < 5 * SERVICE_TIME.toNanos() / 1000,
+                "median far above the service time: " + histogram.getValueAtPercentile(50));
+    }
+
+    private String deploy(ResourceId bot) throws InterruptedException {
+        String versionQuery = "?version=" + bot.getVersion();
+        transport.send(TransportRequest.post("administration/unrestricted/deploy/" + bot.getId() + versionQuery)).
+                then().statusCode(202);
+
+        String status;
+        do {
+            Thread.sleep(20);
+            status = transport.send(TransportRequest.get(
+                    "administration/unrestricted/deploymentstatus/" + bot.getId() + versionQuery)).asString();
+        } while (status.equals("IN_PROGRESS"));
+
+        return status;
+    }
+}
@@ -0,0 +1,96 @@
+package ai.labs.testing.standin;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service time the stand-in server adds to a request before answering it.
+ */
+public interface LatencyProfile {
+    long nextDelayNanos();
+
+    static LatencyProfile none() {
+        return () -> 0;
+    }
+
+    static LatencyProfile fixed(Duration latency) {
+        long nanos = latency.toNanos();
+        return () -> nanos;
+    }
+
+    static LatencyProfile uniform(Duration min, Duration max) {
+        long minNanos = min.toNanos();
+        long maxNanos = max.toNanos();
+        return () -> ThreadLocalRandom.current().nextLong(minNanos, maxNanos + 1);
+    }
+
+    /**
+     * Long-tailed service times as typically seen in real servers.
+     *
+     * @param sigma standard deviation of the underlying normal distribution, 0.5 gives a p99 of about 3x the median
+     */
+    static LatencyProfile logNormal(Duration median, double sigma) {
+        double mu = Math.log(median.toNanos());
+        return () -> (long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+    }
+
+    /**
+     * Adds a stop-the-world pause (as during a full GC) of the given length every interval: requests arriving
+     * during a pause are held until it is over.
+     */
+    static LatencyProfile withPauses(LatencyProfile base, Duration interval, Duration pause) {
+        long intervalNanos = interval.toNanos();
+        long pauseNanos = pause.toNanos();
+        return () -> {
+            long positionInInterval = Math.floorMod(System.nanoTime(), intervalNanos);
+            long pauseDelay = positionInInterval < pauseNanos ? pauseNanos - positionInInterval : 0;
+            return base.nextDelayNanos() + pauseDelay;
+        };
+    }
+
+    /**
+     * Parses profiles like "none", "fixed:20ms", "uniform:5ms:50ms", "lognormal:10ms:0.5", each optionally
+     * followed by ",pause:10s:500ms".
+     */
+    static LatencyProfile parse(String spec) {
+        String[] profiles = spec.trim().split(",");
+        LatencyProfile profile = parseBase(profiles[0].trim().split(":"));
+        for (int i = 1; i < profiles.length; i++) {
+            String[] parts = profiles[i].trim().split(":");
+            if (!"pause".equals(parts[0]) || parts.length != 3) {
+                throw new IllegalArgumentException("Unknown latency profile modifier: " + profiles[i]);
+            }
+            profile = withPauses(profile, parseDuration(parts[1]), parseDuration(parts[2]));
+        }
+
+        return profile;
+    }
+
+    private static LatencyProfile parseBase(String[] parts) {
+        switch (parts[0]) {
+            case "none":
+                return none();
+            case "fixed":
+                return fixed(parseDuration(parts[1]));
+            case "uniform":
+                return uniform(parseDuration(parts[1]), parseDuration(parts[2]));
+            case "lognormal":
+                return logNormal(parseDuration(parts[1]), Double.parseDouble(parts[2]));
+            default:
+                throw new IllegalArgumentException("Unknown latency profile: " + String.join(":", parts));
+        }
+    }
+
+    static Duration parseDuration(String value) {
+        if (value.endsWith("us")) {
+            return Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(Long.parseLong(value.substring(0, value.length() - 2))));
+        } else if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        } else if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+
+        return Duration.ofMillis(Long.parseLong(value));
+    }
+}
@@ -0,0 +1,66 @@
+package ai.labs.testing.standin;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Versioned documents of all stores, as EDDI keeps them: every update adds a version, older versions stay
+ * readable until the resource is deleted.
+ */
+class ResourceStore {
+    private final Map<String, List<byte[]>> resources = new ConcurrentHashMap<>();
+
+    /**
+     * @return the id of the new resource, its version is 1
+     */
+    String create(String storePath, byte[] document) {
+        String id = UUID.randomUUID().toString().replace("-", "").substring(0, 24);
+        List<byte[]> versions = new ArrayList<>();
+        versions.add(document);
+        resources.put(key(storePath, id), versions);
+        return id;
+    }
+
+    /**
+     * @return the document or null if there is no such resource (version)
+     */
+    byte[] read(String storePath, String id, int version) {
+        List<byte[]> versions = resources.get(key(storePath, id));
+        if (versions == null) {
+            return null;
+        }
+
+        synchronized (versions) {
+            return version >= 1 && version <= versions.size() ? versions.get(version - 1) : null;
+        }
+    }
+
+    /**
+     * @return the new version, -1 if there is no such resource or -2 if version isn't the current one
+     */
+    int update(String storePath, String id, int version, byte[] document) {
+        List<byte[]> versions = resources.get(key(storePath, id));
+        if (versions == null) {
+            return -1;
+        }
+
+        synchronized (versions) {
+            if (version != versions.size()) {
+                return -2;
+            }
+            versions.add(document);
+            return versions.size();
+        }
+    }
+
+    boolean delete(String storePath, String id) {
+        return resources.remove(key(storePath, id)) != null;
+    }
+
+    private static String key(String storePath, String id) {
+        return storePath + "/" + id;
+    }
+}
@@ -0,0 +1,126 @@
+package ai.labs.testing.standin;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A conversation of the stand-in server. Its bot doesn't know any behavior rules: it greets on start,
+ * echos every input as output, ends the conversation on "bye" and counts the inputs of a user in the
+ * long-term property "count", shared by all conversations of that user.
+ */
+class StandInConversation {
+    private static final String STATE_READY = "READY";
+    private static final String STATE_ENDED = "ENDED";
+
+    @Getter
+    private final String botId;
+    private final int botVersion;
+    private final String userId;
+    private final AtomicInteger userInputCount;
+    private final List<Step> steps = new ArrayList<>();
+    private String state = STATE_READY;
+
+    StandInConversation(String botId, int botVersion, String userId, AtomicInteger userInputCount) {
+        this.botId = botId;
+        this.botVersion = botVersion;
+        this.userId = userId;
+        this.userInputCount = userInputCount;
+        steps.add(new Step(null, new String[]{"CONVERSATION_START", "welcome"}, "Welcome! I am E.D.D.I.", null));
+    }
+
+    synchronized boolean isEnded() {
+        return STATE_ENDED.equals(state);
+    }
+
+    synchronized void end() {
+        state = STATE_ENDED;
+    }
+
+    synchronized void say(String input) {
+        String normalized = input.trim().toLowerCase(Locale.ROOT);
+        boolean bye = normalized.equals("bye");
+        String action = bye ? "CONVERSATION_END" : "echo";
+        int count = userInputCount.incrementAndGet();
+        steps.add(new Step(input, new String[]{action}, input, count));
+        if (bye) {
+            state = STATE_ENDED;
+        }
+    }
+
+    synchronized ObjectNode toJson(ObjectMapper objectMapper, boolean returnDetailed, boolean returnCurrentStepOnly) {
+        ObjectNode conversation = objectMapper.createObjectNode();
+        conversation.put("botId", botId);
+        conversation.put("botVersion", botVersion);
+        conversation.put("userId", userId);
+        conversation.put("environment", "unrestricted");
+        conversation.put("conversationState", state);
+        conversation.put("undoAvailable", steps.size() > 1);
+        conversation.put("redoAvailable", false);
+
+        ArrayNode conversationSteps = conversation.putArray("conversationSteps");
+        ArrayNode conversationOutputs = conversation.putArray("conversationOutputs");
+        int first = returnCurrentStepOnly ? steps.size() - 1 : 0;
+        for (int i = first; i < steps.size(); i++) {
+            steps.get(i).toJson(conversationSteps.addObject().putArray("conversationStep"),
+                    conversationOutputs.addObject(), returnDetailed);
+        }
+
+        ObjectNode count = conversation.putObject("conversationProperties").putObject("count");
+        count.put("name", "count");
+        count.put("valueInt", userInputCount.get());
+        count.put("scope", "longTerm");
+
+        return conversation;
+    }
+
+    private static class Step {
+        private final String input;
+        private final String[] actions;
+        private final String output;
+        private final Integer count;
+
+        private Step(String input, String[] actions, String output, Integer count) {
+            this.input = input;
+            this.actions = actions;
+            this.output = output;
+            this.count = count;
+        }
+
+        private void toJson(ArrayNode conversationStep, ObjectNode conversationOutput, boolean returnDetailed) {
+            if (input != null) {
+                conversationStep.addObject().put("key", "input:initial").put("value", input);
+                conversationOutput.put("input", input);
+                if (returnDetailed) {
+                    conversationStep.addObject().put("key", "input:normalized").
+                            put("value", input.trim().toLowerCase(Locale.ROOT));
+                }
+            }
+
+            ArrayNode actionValues = conversationStep.addObject().put("key", "actions").putArray("value");
+            ArrayNode outputActions = conversationOutput.putArray("actions");
+            for (String action : actions) {
+                actionValues.add(action);
+                outputActions.add(action);
+            }
+
+            String lastAction = actions[actions.length - 1];
+            ObjectNode outputValue = conversationStep.addObject().put("key", "output:text:" + lastAction).
+                    putObject("value");
+            outputValue.put("type", "text");
+            outputValue.put("text", output);
+            conversationOutput.putArray("output").add(output);
+
+            if (returnDetailed && count != null) {
+                conversationStep.addObject().put("key", "properties:extracted").putObject("value").
+                        put("count", count);
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package ai.labs.testing.standin;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Matches input against regular dictionaries the way the EDDI parser does in principle: phrases first,
+ * then words exactly, then regular expressions and finally words within the levenshtein distance.
+ * The matching cost grows with the dictionary size like it does in EDDI, but it doesn't aim to produce
+ * the same solutions.
+ */
+class StandInParser {
+    private final Map<String, String> phrases = new LinkedHashMap<>();
+    private final Map<String, String> words = new LinkedHashMap<>();
+    private final Map<Pattern, String> regExs = new LinkedHashMap<>();
+    private final int levenshteinDistance;
+
+    StandInParser(List<JsonNode> dictionaries, int levenshteinDistance) {
+        this.levenshteinDistance = levenshteinDistance;
+        for (JsonNode dictionary : dictionaries) {
+            dictionary.path("phrases").forEach(phrase ->
+                    phrases.put(phrase.path("phrase").asText().toLowerCase(Locale.ROOT), phrase.path("expressions").asText()));
+            dictionary.path("words").forEach(word ->
+                    words.put(word.path("word").asText().toLowerCase(Locale.ROOT), word.path("expressions").asText()));
+            dictionary.path("regExs").forEach(regEx ->
+                    regExs.put(Pattern.compile(regEx.path("regEx").asText()), regEx.path("expressions").asText()));
+        }
+    }
+
+    List<String> parse(String input) {
+        List<String> expressions = new ArrayList<>();
+        String normalized = input.trim().toLowerCase(Locale.ROOT);
+
+        String phraseExpressions = phrases.get(normalized);
+        if (phraseExpressions != null) {
+            expressions.add(phraseExpressions);
+            return expressions;
+        }
+
+        for (String token : normalized.split("\\s+")) {
+            String wordExpressions = words.get(token);
+            if (wordExpressions == null) {
+                wordExpressions = matchRegEx(token);
+            }
+            if (wordExpressions == null && levenshteinDistance > 0) {
+                wordExpressions = correct(token);
+            }
+            if (wordExpressions != null) {
+                expressions.add(wordExpressions);
+            }
+        }
+
+        return expressions;
+    }
+
+    private String matchRegEx(String token) {
+        for (Map.Entry<Pattern, String> regEx : regExs.entrySet()) {
+            if (regEx.getKey().matcher(token).matches()) {
+                return regEx.getValue();
+            }
+        }
+
+        return null;
+    }
+
+    private String correct(String token) {
+        for (Map.Entry<String, String> word : words.entrySet()) {
+            if (levenshtein(token, word.getKey()) <= levenshteinDistance) {
+                return word.getValue();
+            }
+        }
+
+        return null;
+    }
+
+    static int levenshtein(String a, String b) {
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            for (int j = 1; j <= b.length(); j++) {
+                int substitution = previous[j - 1] + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1);
+                current[j] = Math.min(substitution, Math.min(previous[j], current[j - 1]) + 1);
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        return previous[b.length()];
+    }
+}
@@ -0,0 +1,67 @@
+package ai.labs.testing.transport;
+
+import java.io.ByteArrayOutputStream;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+/**
+ * Bounded pool of growable byte buffers for request bodies. It is shared instead of thread-local, since with
+ * virtual threads every request may run on a thread of its own. Buffers that grew beyond
+ * {@value #MAX_RETAINED_SIZE} bytes aren't taken back, so a few huge bodies don't pin memory for the
+ * rest of the run.
+ */
+public class BufferPool {
+    private static final int INITIAL_SIZE = 1024;
+    private static final int MAX_RETAINED_SIZE = 64 * 1024;
+    private static final BufferPool DEFAULT = new BufferPool(1024);
+
+    private final BlockingQueue<PooledBuffer> buffers;
+
+    public BufferPool(int capacity) {
+        this.buffers = new ArrayBlockingQueue<>(capacity);
+    }
+
+    public static BufferPool getDefault() {
+        return DEFAULT;
+    }
+
+    public PooledBuffer acquire() {
+        PooledBuffer buffer = buffers.poll();
+        return buffer != null ? buffer : new PooledBuffer(this);
+    }
+
+    private void release(PooledBuffer buffer) {
+        if (buffer.capacity() <= MAX_RETAINED_SIZE) {
+            buffer.reset();
+            buffers.offer(buffer);
+        }
+    }
+
+    /**
+     * Exposes its backing array, so a body can go out without being copied. Must be released once the
+     * request has been sent and must not be touched afterwards.
+     */
+    public static class PooledBuffer extends ByteArrayOutputStream {
+        private final BufferPool pool;
+
+        private PooledBuffer(BufferPool pool) {
+            super(INITIAL_SIZE);
+            this.pool = pool;
+        }
+
+        /**
+         * @return the backing array, its first {@link #size()} bytes are the content
+         */
+        public byte[] array() {
+            return buf;
+        }
+
+        int capacity() {
+            return buf.length;
+        }
+
+        public void release() {
+            pool.release(this);
+        }
+    }
+}
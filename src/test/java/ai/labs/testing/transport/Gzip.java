@@ -0,0 +1,51 @@
+package ai.labs.testing.transport;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * gzip for HTTP bodies (Content-Encoding and Accept-Encoding "gzip").
+ */
+public class Gzip {
+    public static final String ENCODING = "gzip";
+
+    private Gzip() {
+    }
+
+    public static byte[] compress(byte[] data, int offset, int length) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(Math.max(64, length / 4));
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(data, offset, length);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return compressed.toByteArray();
+    }
+
+    public static byte[] decompress(byte[] data) {
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * @return whether an Accept-Encoding or Content-Encoding header value contains gzip
+     */
+    public static boolean isAccepted(String encodingHeader) {
+        if (encodingHeader == null) {
+            return false;
+        }
+        for (String encoding : encodingHeader.split(",")) {
+            if (encoding.trim().toLowerCase().startsWith(ENCODING)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
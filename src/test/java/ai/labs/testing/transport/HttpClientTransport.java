@@ -0,0 +1,156 @@
+package ai.labs.testing.transport;
+
+import io.restassured.builder.ResponseBuilder;
+import io.restassured.http.Header;
+import io.restassured.http.Headers;
+import io.restassured.response.Response;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Non-blocking transport on top of java.net.http.HttpClient. All requests share one client and thereby
+ * its pool of keep-alive connections (HTTP/1.1) or multiplexed connections (HTTP/2).
+ * At most {@code window} requests are in flight at the same time, {@link #sendAsync} blocks the caller
+ * until there is room for another one. With gzip, responses are negotiated compressed and decompressed here,
+ * so the bytes on the wire are known exactly.
+ */
+public class HttpClientTransport implements Transport {
+    private static final Duration REQUEST_TIMEOUT = Duration.ofMinutes(5);
+
+    private final HttpClient httpClient;
+    private final String baseUri;
+    private final Semaphore window;
+    private final TrafficStatistics trafficStatistics = new TrafficStatistics();
+    private final boolean gzip;
+    private final int compressionThreshold;
+
+    public HttpClientTransport(String baseUri, HttpClient.Version version, int window) {
+        this(baseUri, version, window, false, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param compressionThreshold request bodies of at least that many bytes are sent gzip-compressed
+     */
+    public HttpClientTransport(String baseUri, HttpClient.Version version, int window,
+                               boolean gzip, int compressionThreshold) {
+        this.baseUri = baseUri.endsWith("/") ? baseUri : baseUri + "/";
+        this.window = new Semaphore(window);
+        this.gzip = gzip;
+        this.compressionThreshold = compressionThreshold;
+        this.httpClient = HttpClient.newBuilder().
+                version(version).
+                connectTimeout(Duration.ofSeconds(10)).
+                build();
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(TransportRequest request) {
+        try {
+            window.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            request.release();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        try {
+            AtomicLong streamedBytes = new AtomicLong();
+            HttpRequest.BodyPublisher bodyPublisher = toBodyPublisher(request, streamedBytes);
+            // the request goes back to its pool before the response is converted
+            String method = request.getMethod();
+            String path = request.getPath();
+            boolean streamed = request.getBodyStream() != null;
+            long requestBytes = request.getBody() == null ? 0 : request.getBodyLength();
+            long requestWireBytes = Math.max(0, bodyPublisher.contentLength());
+            return httpClient.sendAsync(toHttpRequest(request, bodyPublisher), HttpResponse.BodyHandlers.ofByteArray()).
+                    whenComplete((response, throwable) -> {
+                        window.release();
+                        request.release();
+                    }).
+                    thenApply(response -> toResponse(response, method, path,
+                            streamed ? streamedBytes.get() : requestWireBytes,
+                            streamed ? streamedBytes.get() : requestBytes));
+        } catch (RuntimeException e) {
+            window.release();
+            request.release();
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    @Override
+    public TrafficStatistics getTrafficStatistics() {
+        return trafficStatistics;
+    }
+
+    /**
+     * A body stream is sent chunked and as it is, without compression.
+     */
+    private HttpRequest.BodyPublisher toBodyPublisher(TransportRequest request, AtomicLong streamedBytes) {
+        if (request.getBodyStream() != null) {
+            return HttpRequest.BodyPublishers.ofInputStream(() -> {
+                streamedBytes.set(0);
+                return new CountingInputStream(request.getBodyStream().get(), streamedBytes);
+            });
+        }
+        if (request.getBody() == null) {
+            return HttpRequest.BodyPublishers.noBody();
+        }
+        if (gzip && request.getBodyLength() >= compressionThreshold) {
+            return HttpRequest.BodyPublishers.ofByteArray(Gzip.compress(request.getBody(), 0, request.getBodyLength()));
+        }
+        return HttpRequest.BodyPublishers.ofByteArray(request.getBody(), 0, request.getBodyLength());
+    }
+
+    private HttpRequest toHttpRequest(TransportRequest request, HttpRequest.BodyPublisher bodyPublisher) {
+        String path = request.getPath().startsWith("/") ? request.getPath().substring(1) : request.getPath();
+
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUri + path)).
+                timeout(REQUEST_TIMEOUT).
+                method(request.getMethod(), bodyPublisher);
+        if (request.getContentType() != null) {
+            builder.header("Content-Type", request.getContentType());
+        }
+        if (request.getAccept() != null) {
+            builder.header("Accept", request.getAccept());
+        }
+        if (gzip) {
+            builder.header("Accept-Encoding", Gzip.ENCODING);
+            if (request.getBody() != null && request.getBodyLength() >= compressionThreshold) {
+                builder.header("Content-Encoding", Gzip.ENCODING);
+            }
+        }
+
+        return builder.build();
+    }
+
+    private Response toResponse(HttpResponse<byte[]> httpResponse, String method, String path,
+                                long requestWireBytes, long requestBytes) {
+        byte[] body = httpResponse.body();
+        if (Gzip.isAccepted(httpResponse.headers().firstValue("Content-Encoding").orElse(null))) {
+            body = Gzip.decompress(body);
+        }
+        trafficStatistics.record(method, path, requestWireBytes, requestBytes, httpResponse.body().length, body.length);
+
+        List<Header> headers = new ArrayList<>();
+        httpResponse.headers().map().forEach((name, values) ->
+                values.forEach(value -> headers.add(new Header(name, value))));
+
+        ResponseBuilder responseBuilder = new ResponseBuilder().
+                setStatusCode(httpResponse.statusCode()).
+                setStatusLine(String.valueOf(httpResponse.statusCode())).
+                setHeaders(new Headers(headers)).
+                setBody(body);
+        httpResponse.headers().firstValue("Content-Type").ifPresent(responseBuilder::setContentType);
+
+        return responseBuilder.build();
+    }
+}
@@ -0,0 +1,93 @@
+package ai.labs.testing.transport;
+
+import io.restassured.RestAssured;
+import io.restassured.config.DecoderConfig;
+import io.restassured.response.Response;
+import io.restassured.specification.RequestSpecification;
+
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static io.restassured.RestAssured.given;
+
+/**
+ * Blocking transport based on RestAssured, configured by RestAssured.baseURI and RestAssured.port.
+ * The returned futures are always completed already.
+ * With gzip, responses are negotiated compressed and decompressed by RestAssured, their size on the wire is
+ * taken from Content-Length; without, RestAssured doesn't offer any encoding.
+ */
+public class RestAssuredTransport implements Transport {
+    private final TrafficStatistics trafficStatistics = new TrafficStatistics();
+    private final boolean gzip;
+    private final int compressionThreshold;
+
+    public RestAssuredTransport() {
+        this(false, Integer.MAX_VALUE);
+    }
+
+    /**
+     * @param compressionThreshold request bodies of at least that many bytes are sent gzip-compressed
+     */
+    public RestAssuredTransport(boolean gzip, int compressionThreshold) {
+        this.gzip = gzip;
+        this.compressionThreshold = compressionThreshold;
+    }
+
+    @Override
+    public CompletableFuture<Response> sendAsync(TransportRequest request) {
+        RequestSpecification specification = given();
+        if (!gzip) {
+            specification.config(RestAssured.config().decoderConfig(DecoderConfig.decoderConfig().noContentDecoders()));
+        }
+        if (request.getContentType() != null) {
+            specification.contentType(request.getContentType());
+        }
+        if (request.getAccept() != null) {
+            specification.accept(request.getAccept());
+        }
+        long requestWireBytes = request.getBodyLength();
+        AtomicLong streamedBytes = new AtomicLong();
+        if (request.getBodyStream() != null) {
+            specification.body(new CountingInputStream(request.getBodyStream().get(), streamedBytes));
+        } else if (request.getBody() != null) {
+            byte[] body = request.getBody();
+            if (gzip && request.getBodyLength() >= compressionThreshold) {
+                body = Gzip.compress(body, 0, request.getBodyLength());
+                specification.header("Content-Encoding", Gzip.ENCODING);
+            } else if (body.length != request.getBodyLength()) {
+                body = Arrays.copyOf(body, request.getBodyLength());
+            }
+            requestWireBytes = body.length;
+            specification.body(body);
+        }
+
+        try {
+            Response response = specification.request(request.getMethod(), request.getPath());
+            int responseBytes = response.getBody().asByteArray().length;
+            boolean streamed = request.getBodyStream() != null;
+            trafficStatistics.record(request.getMethod(), request.getPath(),
+                    streamed ? streamedBytes.get() : requestWireBytes,
+                    streamed ? streamedBytes.get() : request.getBodyLength(),
+                    getResponseWireBytes(response, responseBytes), responseBytes);
+            return CompletableFuture.completedFuture(response);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        } finally {
+            request.release();
+        }
+    }
+
+    @Override
+    public TrafficStatistics getTrafficStatistics() {
+        return trafficStatistics;
+    }
+
+    private static long getResponseWireBytes(Response response, int responseBytes) {
+        String contentLength = response.getHeader("Content-Length");
+        if (Gzip.isAccepted(response.getHeader("Content-Encoding")) && contentLength != null) {
+            return Long.parseLong(contentLength);
+        }
+        return responseBytes;
+    }
+}
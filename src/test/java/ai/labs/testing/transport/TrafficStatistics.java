@@ -0,0 +1,133 @@
+package ai.labs.testing.transport;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+/**
+ * Body bytes sent and received by a {@link Transport}, as they went over the wire (compressed, if they were)
+ * and uncompressed, per kind of request. The kind is the method and path with the ids (ObjectIds and UUIDs),
+ * intents, userIds and query values replaced, except for true/false, so that e.g. the turns of each
+ * returnDetailed/returnCurrentStepOnly combination are counted apart. Recording is lock-free.
+ */
+public class TrafficStatistics {
+    private static final Pattern ID = Pattern.compile("(?<=/)([0-9a-f]{24}|[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12})(?=/|$|\\?)");
+    private static final Pattern MANAGED_BOT = Pattern.compile("^managedbots/[^/?]+/[^/?]+");
+    private static final Pattern BOT_TRIGGER = Pattern.compile("(?<=^bottriggerstore/bottriggers/)[^/?]+");
+    private static final Pattern QUERY_VALUE = Pattern.compile("(?<==)(?!(true|false)(&|$))[^&]*");
+    private static final String HEADER_FORMAT = "%-{w}s %8s %12s %12s %12s %12s %10s";
+    private static final String ROW_FORMAT = "%-{w}s %8d %12.0f %12.0f %12.0f %12.0f %10.2f";
+    private static final int MIN_REQUEST_WIDTH = 48;
+
+    private final Map<String, Counters> requests = new ConcurrentHashMap<>();
+
+    /**
+     * @param path as in {@link TransportRequest#getPath()}
+     */
+    public void record(String method, String path, long requestWireBytes, long requestBytes,
+                       long responseWireBytes, long responseBytes) {
+        Counters counters = requests.computeIfAbsent(toKey(method, path), key -> new Counters());
+        counters.count.increment();
+        counters.requestWireBytes.add(requestWireBytes);
+        counters.requestBytes.add(requestBytes);
+        counters.responseWireBytes.add(responseWireBytes);
+        counters.responseBytes.add(responseBytes);
+    }
+
+    /**
+     * @return request and response body bytes of all requests as they went over the wire
+     */
+    public long getWireBytes() {
+        return requests.values().stream().
+                mapToLong(counters -> counters.requestWireBytes.sum() + counters.responseWireBytes.sum()).sum();
+    }
+
+    /**
+     * @return request and response body bytes of all requests uncompressed
+     */
+    public long getBytes() {
+        return requests.values().stream().
+                mapToLong(counters -> counters.requestBytes.sum() + counters.responseBytes.sum()).sum();
+    }
+
+    public boolean isEmpty() {
+        return requests.isEmpty();
+    }
+
+    /**
+     * @return a copy of the counts so far, which recording does not change
+     */
+    public TrafficStatistics snapshot() {
+        return since(new TrafficStatistics());
+    }
+
+    /**
+     * @param earlier a {@link #snapshot()} of these statistics
+     * @return the counts recorded after the snapshot was taken
+     */
+    public TrafficStatistics since(TrafficStatistics earlier) {
+        TrafficStatistics difference = new TrafficStatistics();
+        requests.forEach((key, counters) -> {
+            Counters before = earlier.requests.getOrDefault(key, new Counters());
+            long count = counters.count.sum() - before.count.sum();
+            if (count > 0) {
+                Counters counted = new Counters();
+                counted.count.add(count);
+                counted.requestWireBytes.add(counters.requestWireBytes.sum() - before.requestWireBytes.sum());
+                counted.requestBytes.add(counters.requestBytes.sum() - before.requestBytes.sum());
+                counted.responseWireBytes.add(counters.responseWireBytes.sum() - before.responseWireBytes.sum());
+                counted.responseBytes.add(counters.responseBytes.sum() - before.responseBytes.sum());
+                difference.requests.put(key, counted);
+            }
+        });
+        return difference;
+    }
+
+    /**
+     * @return per kind of request: the number of requests, the average request and response body bytes on
+     * the wire and uncompressed, and the total MB on the wire
+     */
+    public String format() {
+        Map<String, Counters> sorted = new TreeMap<>(requests);
+        int width = MIN_REQUEST_WIDTH;
+        for (String key : sorted.keySet()) {
+            width = Math.max(width, key.length());
+        }
+
+        StringBuilder table = new StringBuilder(String.format(HEADER_FORMAT.replace("{w}", String.valueOf(width)),
+                "request", "count", "req B wire", "req B", "resp B wire", "resp B", "MB wire"));
+        String rowFormat = "%n" + ROW_FORMAT.replace("{w}", String.valueOf(width));
+        sorted.forEach((key, counters) -> {
+            double count = Math.max(1, counters.count.sum());
+            long wireBytes = counters.requestWireBytes.sum() + counters.responseWireBytes.sum();
+            table.append(String.format(rowFormat, key, counters.count.sum(),
+                    counters.requestWireBytes.sum() / count, counters.requestBytes.sum() / count,
+                    counters.responseWireBytes.sum() / count, counters.responseBytes.sum() / count,
+                    wireBytes / (1024d * 1024d)));
+        });
+
+        return table.toString();
+    }
+
+    public static String toKey(String method, String path) {
+        String key = path.startsWith("/") ? path.substring(1) : path;
+        key = ID.matcher(key).replaceAll("{id}");
+        key = MANAGED_BOT.matcher(key).replaceFirst("managedbots/{intent}/{userId}");
+        key = BOT_TRIGGER.matcher(key).replaceFirst("{intent}");
+        int query = key.indexOf('?');
+        if (query >= 0) {
+            key = key.substring(0, query) + QUERY_VALUE.matcher(key.substring(query)).replaceAll("{value}");
+        }
+        return method + " " + key;
+    }
+
+    private static class Counters {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder requestWireBytes = new LongAdder();
+        private final LongAdder requestBytes = new LongAdder();
+        private final LongAdder responseWireBytes = new LongAdder();
+        private final LongAdder responseBytes = new LongAdder();
+    }
+}
@@ -0,0 +1,41 @@
+package ai.labs.testing.transport;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+@Test(groups = "standin")
+public class TrafficStatisticsTest {
+    private static final String OBJECT_ID = "5c2f1f6a9d5b3a0001a1b2c3";
+    private static final String UUID = "0f8fad5b-d9cb-469f-a165-70867728950e";
+
+    public void foldsIdsAndQueryValues() {
+        Assert.assertEquals(TrafficStatistics.toKey("POST", "/bots/unrestricted/" + OBJECT_ID + "/" + OBJECT_ID +
+                        "?returnDetailed=true&returnCurrentStepOnly=false"),
+                "POST bots/unrestricted/{id}/{id}?returnDetailed=true&returnCurrentStepOnly=false");
+        Assert.assertEquals(TrafficStatistics.toKey("GET", "regulardictionarystore/regulardictionaries/" +
+                OBJECT_ID + "?version=3"), "GET regulardictionarystore/regulardictionaries/{id}?version={value}");
+        Assert.assertEquals(TrafficStatistics.toKey("GET", "conversationstore/" + UUID),
+                "GET conversationstore/{id}");
+    }
+
+    public void foldsIntentsAndUserIds() {
+        Assert.assertEquals(TrafficStatistics.toKey("POST", "/managedbots/weather/user42/endConversation"),
+                "POST managedbots/{intent}/{userId}/endConversation");
+        Assert.assertEquals(TrafficStatistics.toKey("PUT", "bottriggerstore/bottriggers/weather"),
+                "PUT bottriggerstore/bottriggers/{intent}");
+    }
+
+    public void countsSinceSnapshot() {
+        TrafficStatistics statistics = new TrafficStatistics();
+        statistics.record("GET", "botstore/bots", 0, 0, 100, 400);
+        TrafficStatistics snapshot = statistics.snapshot();
+        statistics.record("GET", "botstore/bots", 0, 0, 50, 200);
+        statistics.record("POST", "botstore/bots", 30, 60, 0, 0);
+
+        TrafficStatistics since = statistics.since(snapshot);
+        Assert.assertEquals(since.getWireBytes(), 80);
+        Assert.assertEquals(since.getBytes(), 260);
+        Assert.assertEquals(snapshot.getWireBytes(), 100);
+        Assert.assertTrue(statistics.since(statistics.snapshot()).isEmpty());
+    }
+}
@@ -0,0 +1,30 @@
+package ai.labs.testing.transport;
+
+import io.restassured.response.Response;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Sends requests to EDDI. Responses are RestAssured responses regardless of the implementation,
+ * so that the tests can assert on them the same way.
+ */
+public interface Transport {
+    CompletableFuture<Response> sendAsync(TransportRequest request);
+
+    default Response send(TransportRequest request) {
+        try {
+            return sendAsync(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return the body bytes of every request sent so far
+     */
+    TrafficStatistics getTrafficStatistics();
+}
@@ -0,0 +1,103 @@
+package ai.labs.testing.transport;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Supplier;
+
+/**
+ * A request as sent by a {@link Transport}. The path is relative to the EDDI base URI and may contain
+ * the query string. The body is the first {@link #getBodyLength()} bytes of {@link #getBody()}; a request with
+ * a pooled body is sent once, the transport {@link #release() releases} it when the exchange is over.
+ * A request with a {@link #getBodyStream() body stream} has no body array, the stream is opened when the
+ * request is sent and its content goes out as it is read.
+ */
+@Getter
+public class TransportRequest {
+    private final String method;
+    private final String path;
+    private final String contentType;
+    private final String accept;
+    private final byte[] body;
+    private final int bodyLength;
+    private final Supplier<InputStream> bodyStream;
+    @Getter(AccessLevel.NONE)
+    private final BufferPool.PooledBuffer pooledBody;
+
+    public TransportRequest(String method, String path, String contentType, String accept, byte[] body) {
+        this(method, path, contentType, accept, body, body != null ? body.length : 0, null, null);
+    }
+
+    private TransportRequest(String method, String path, String contentType, String accept, byte[] body,
+                             int bodyLength, Supplier<InputStream> bodyStream, BufferPool.PooledBuffer pooledBody) {
+        this.method = method;
+        this.path = path;
+        this.contentType = contentType;
+        this.accept = accept;
+        this.body = body;
+        this.bodyLength = bodyLength;
+        this.bodyStream = bodyStream;
+        this.pooledBody = pooledBody;
+    }
+
+    public static TransportRequest get(String path) {
+        return new TransportRequest("GET", path, null, null, null);
+    }
+
+    public static TransportRequest get(String path, String accept) {
+        return new TransportRequest("GET", path, null, accept, null);
+    }
+
+    public static TransportRequest head(String path) {
+        return new TransportRequest("HEAD", path, null, null, null);
+    }
+
+    public static TransportRequest delete(String path) {
+        return new TransportRequest("DELETE", path, null, null, null);
+    }
+
+    public static TransportRequest post(String path) {
+        return new TransportRequest("POST", path, null, null, null);
+    }
+
+    public static TransportRequest post(String path, String contentType, String body) {
+        return withBody("POST", path, contentType, body);
+    }
+
+    /**
+     * @param body sent without copying it, owned by the request from now on
+     */
+    public static TransportRequest post(String path, String contentType, BufferPool.PooledBuffer body) {
+        return new TransportRequest("POST", path, contentType, null, body.array(), body.size(), null, body);
+    }
+
+    /**
+     * @param body opens the stream to send, it may be called again if the request has to be resent
+     */
+    public static TransportRequest post(String path, String contentType, Supplier<InputStream> body) {
+        return new TransportRequest("POST", path, contentType, null, null, 0, body, null);
+    }
+
+    public static TransportRequest put(String path, String contentType, String body) {
+        return withBody("PUT", path, contentType, body);
+    }
+
+    public static TransportRequest patch(String path, String contentType, String body) {
+        return withBody("PATCH", path, contentType, body);
+    }
+
+    private static TransportRequest withBody(String method, String path, String contentType, String body) {
+        return new TransportRequest(method, path, contentType, null, body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns a pooled body to its pool, a no-op for other requests.
+     */
+    public void release() {
+        if (pooledBody != null) {
+            pooledBody.release();
+        }
+    }
+}
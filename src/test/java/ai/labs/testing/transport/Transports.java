@@ -0,0 +1,36 @@
+package ai.labs.testing.transport;
+
+import java.net.http.HttpClient;
+import java.util.Properties;
+
+/**
+ * Creates the transport selected with -Deddi.transport=restassured|httpclient. With
+ * -Deddi.transport.compression=gzip it asks for gzip-compressed responses and compresses request bodies of at
+ * least -Deddi.transport.compressionThreshold bytes.
+ */
+public class Transports {
+    private static final String TRANSPORT_HTTP_CLIENT = "httpclient";
+    private static final String COMPRESSION_GZIP = "gzip";
+    private static Transport transport;
+
+    private Transports() {
+    }
+
+    public static synchronized Transport fromSystemProperties(String baseUri, int port) {
+        if (transport == null) {
+            final Properties props = System.getProperties();
+            boolean gzip = COMPRESSION_GZIP.equals(props.getProperty("eddi.transport.compression", "none"));
+            int compressionThreshold = Integer.parseInt(props.getProperty("eddi.transport.compressionThreshold", "8192"));
+            if (TRANSPORT_HTTP_CLIENT.equals(props.getProperty("eddi.transport"))) {
+                HttpClient.Version version = HttpClient.Version.valueOf(
+                        props.getProperty("eddi.transport.httpVersion", HttpClient.Version.HTTP_1_1.name()));
+                int window = Integer.parseInt(props.getProperty("eddi.transport.window", "1024"));
+                transport = new HttpClientTransport(baseUri + ":" + port, version, window, gzip, compressionThreshold);
+            } else {
+                transport = new RestAssuredTransport(gzip, compressionThreshold);
+            }
+        }
+
+        return transport;
+    }
+}